@@ -0,0 +1,93 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import creation.CellWorld;
+
+// @formatter:off
+/**
+ * Base of the benchmarks that work on a board: every benchmark is run for each
+ * combination of board size, density and pattern, see {@link Boards}.
+ * 
+ * Each combination runs in its own fork, warmed up and then measured in
+ * iterations of a fixed time, reporting operations per second. The heap is
+ * sized for the largest boards.
+ * 
+ * 
+ * ---------------------------------- Usage: -----------------------------------
+ * mvn -B -P jmh package
+ * java -jar target/benchmarks.jar [benchmark regex] [JMH option]...
+ * 
+ * 		-p size=...		Board sizes, 64 to 16384 (default: 64,256,1024,4096,16384)
+ * 		-p density=...		Densities of living cells, 0 to 1 (default: 0.1,0.35)
+ * 		-p pattern=...		Patterns: SOUP, GUN, STILL (default: all)
+ * 		-prof gc		Report the allocation rate of the benchmark, in
+ * 					bytes per operation as gc.alloc.rate.norm
+ * 		-l			List the benchmarks
+ * 
+ * All list values are comma separated. For example, the allocations of a tick
+ * of every pattern on a 1024 board:
+ * 
+ * 		java -jar target/benchmarks.jar TickBenchmark -p size=1024 -prof gc
+ * 
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+// @formatter:on
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public abstract class BoardBenchmark {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Size of the board, between 64 and 16384
+	 */
+	@Param({ "64", "256", "1024", "4096", "16384" })
+	public int				size;
+	/**
+	 * Density of the board's pattern, between 0 and 1
+	 */
+	@Param({ "0.1", "0.35" })
+	public double			density;
+	/**
+	 * Pattern the board is filled with
+	 */
+	@Param({ "SOUP", "GUN", "STILL" })
+	public Pattern			pattern;
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Create a world filled with the board of the current parameters.
+	 * 
+	 * @return World holding the board as its initial state
+	 */
+	protected CellWorld createWorld() {
+		if ( size < 64 || size > 16384 ) {
+			throw new IllegalArgumentException("Board size must be between "
+					+ "64 and 16384: " + size);
+		}
+		return Boards.createWorld(size, density, pattern);
+	}
+
+}
@@ -0,0 +1,136 @@
+package bench;
+
+import java.util.Random;
+
+import creation.CellWorld;
+
+/**
+ * Boards shared by the benchmarks. Every board is filled from the same seed,
+ * so that runs are comparable.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+final class Boards {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Seed of the random patterns, so that runs are comparable
+	 */
+	private static final long		SEED		= 0x5EED;
+
+	// @formatter:off
+	/**
+	 * Gosper glider gun, as rows of '.' (dead) and 'O' (alive) cells
+	 */
+	private static final String[]	GLIDER_GUN	= {
+		"........................O...........",
+		"......................O.O...........",
+		"............OO......OO............OO",
+		"...........O...O....OO............OO",
+		"OO........O.....O...OO..............",
+		"OO........O...O.OO....O.O...........",
+		"..........O.....O.......O...........",
+		"...........O...O....................",
+		"............OO......................"
+	};
+	// @formatter:on
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Helpers only, never instantiated.
+	 */
+	private Boards() {
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Create a world filled with a pattern. The cells are set on the world
+	 * directly, so the largest boards never need an int array of their own.
+	 * 
+	 * @param size
+	 *            Size of the world
+	 * @param density
+	 *            Density of the pattern, see {@link Pattern}
+	 * @param pattern
+	 *            Pattern to fill the world with
+	 * @return World of size x size cells, with the pattern as its initial
+	 *         state
+	 */
+	static CellWorld createWorld(int size, double density, Pattern pattern) {
+		Random random = new Random(SEED);
+		CellWorld world = new CellWorld(size);
+
+		switch (pattern) {
+			case SOUP:
+				for (int x = 0; x < size; x++) {
+					for (int y = 0; y < size; y++) {
+						if ( random.nextDouble() < density ) {
+							world.setCellState(x, y, CellWorld.ALIVE);
+						}
+					}
+				}
+				break;
+			case GUN:
+				// leave room between guns for the gliders to travel
+				int gunRows = GLIDER_GUN.length + 16;
+				int gunCols = GLIDER_GUN[0].length() + 16;
+				for (int x = 0; x + GLIDER_GUN.length <= size; x += gunRows) {
+					for (int y = 0; y + gunCols <= size; y += gunCols) {
+						if ( random.nextDouble() < density ) {
+							stamp(world, GLIDER_GUN, x, y);
+						}
+					}
+				}
+				break;
+			case STILL:
+				for (int x = 0; x + 4 <= size; x += 4) {
+					for (int y = 0; y + 4 <= size; y += 4) {
+						if ( random.nextDouble() < density ) {
+							world.setCellState(x + 1, y + 1, CellWorld.ALIVE);
+							world.setCellState(x + 1, y + 2, CellWorld.ALIVE);
+							world.setCellState(x + 2, y + 1, CellWorld.ALIVE);
+							world.setCellState(x + 2, y + 2, CellWorld.ALIVE);
+						}
+					}
+				}
+				break;
+		}
+
+		world.syncInitialState();
+		return world;
+	}
+
+	/**
+	 * Copy a pattern into a world.
+	 * 
+	 * @param world
+	 *            World to copy into
+	 * @param pattern
+	 *            Rows of '.' (dead) and 'O' (alive) cells
+	 * @param x
+	 *            Row of the world to place the first row of the pattern at
+	 * @param y
+	 *            Column of the world to place the first column of the pattern
+	 *            at
+	 */
+	private static void stamp(CellWorld world, String[] pattern, int x, int y) {
+		for (int i = 0; i < pattern.length; i++) {
+			for (int j = 0; j < pattern[i].length(); j++) {
+				if ( pattern[i].charAt(j) == 'O' ) {
+					world.setCellState(x + i, y + j, CellWorld.ALIVE);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import util.GOLFileHandler;
+import creation.CellWorld;
+
+/**
+ * Benchmarks of loading and saving world files with {@link GOLFileHandler},
+ * one file per operation. Both work on a temporary file holding the board.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public class FileBenchmark extends BoardBenchmark {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * World being saved
+	 */
+	private CellWorld	world;
+	/**
+	 * Temporary file holding the board
+	 */
+	private File		scratch;
+
+	// #########################################################################
+	// Benchmark Methods
+	// #########################################################################
+
+	/**
+	 * Create the world of the current parameters and save it to a temporary
+	 * file.
+	 * 
+	 * @throws IOException
+	 *             Occurs when the temporary file cannot be written
+	 */
+	@Setup
+	public void createFile() throws IOException {
+		world = this.createWorld();
+		scratch = File.createTempFile("gol-bench", ".txt");
+		scratch.deleteOnExit();
+		GOLFileHandler.saveWorldFile(scratch, world);
+	}
+
+	/**
+	 * Delete the temporary file.
+	 */
+	@TearDown
+	public void deleteFile() {
+		scratch.delete();
+	}
+
+	/**
+	 * Parse the board's world file, see
+	 * {@link GOLFileHandler#parseWorldFile(File)}.
+	 * 
+	 * @return Parsed board, so that the parsing is not optimized away
+	 * @throws IOException
+	 *             Occurs when the file cannot be read
+	 */
+	@Benchmark
+	public int[][] load() throws IOException {
+		return GOLFileHandler.parseWorldFile(scratch);
+	}
+
+	/**
+	 * Save the board's world file, see
+	 * {@link GOLFileHandler#saveWorldFile(File, creation.GOLModel)}.
+	 * 
+	 * @throws IOException
+	 *             Occurs when the file cannot be written
+	 */
+	@Benchmark
+	public void save() throws IOException {
+		GOLFileHandler.saveWorldFile(scratch, world);
+	}
+
+}
@@ -0,0 +1,24 @@
+package bench;
+
+/**
+ * Patterns used to fill a board, see {@link Boards}.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public enum Pattern {
+	/**
+	 * Cells are alive at random with the given density.
+	 */
+	SOUP,
+	/**
+	 * The board is tiled with Gosper glider guns, each kept with the given
+	 * density as its probability.
+	 */
+	GUN,
+	/**
+	 * The board is tiled with 4x4 slots, each holding a block (a still
+	 * life) with the given density as its probability.
+	 */
+	STILL
+}
@@ -0,0 +1,71 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import creation.CellWorld;
+import creation.GOLView;
+
+/**
+ * Benchmark of pushing a world into the {@link GOLView} grid the way the
+ * controller's updateViewGrid does, one full grid per operation.
+ * 
+ * Needs a display: in headless environments its setup fails, so exclude it
+ * with -e RenderBenchmark.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public class RenderBenchmark extends BoardBenchmark {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * World being rendered
+	 */
+	private CellWorld	world;
+	/**
+	 * View the world is rendered to
+	 */
+	private GOLView		view;
+
+	// #########################################################################
+	// Benchmark Methods
+	// #########################################################################
+
+	/**
+	 * Create the world of the current parameters and a view of its size.
+	 */
+	@Setup
+	public void createView() {
+		world = this.createWorld();
+		view = new GOLView();
+		view.resizeGrid(size);
+	}
+
+	/**
+	 * Close the view.
+	 */
+	@TearDown
+	public void closeView() {
+		view.dispose();
+	}
+
+	/**
+	 * Update every cell of the view grid from the world and repaint it.
+	 */
+	@Benchmark
+	public void render() {
+		// same work as the controller's updateViewGrid
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				view.updateGridCell(x, y, world.getCellState(x, y));
+			}
+		}
+		view.repaintGrid();
+	}
+
+}
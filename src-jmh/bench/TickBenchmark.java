@@ -0,0 +1,75 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import creation.CellWorld;
+
+/**
+ * Benchmark of {@link CellWorld#tick()}, one generation per operation. Every
+ * iteration starts over from the initial board, so that iterations measure
+ * the same generations.
+ * 
+ * The vector kernel(see {@link CellWorld#setVectorized(boolean)}) is measured
+ * with -p vectorized=true, which needs the jar built with the vector profile
+ * and run with --add-modules jdk.incubator.vector.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public class TickBenchmark extends BoardBenchmark {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * True to tick with the vector kernel
+	 */
+	@Param({ "false" })
+	public boolean		vectorized;
+
+	/**
+	 * World being ticked
+	 */
+	private CellWorld	world;
+
+	// #########################################################################
+	// Benchmark Methods
+	// #########################################################################
+
+	/**
+	 * Create the world of the current parameters.
+	 * 
+	 * @throws IllegalStateException
+	 *             Occurs when the vector kernel is requested but not available
+	 */
+	@Setup
+	public void createTickWorld() {
+		world = this.createWorld();
+		if ( world.setVectorized(vectorized) != vectorized ) {
+			throw new IllegalStateException("Vector kernel not available: "
+					+ "build with -P jmh,vector and run with --add-modules "
+					+ "jdk.incubator.vector.");
+		}
+	}
+
+	/**
+	 * Restore the initial board before each iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void resetWorld() {
+		world.reset();
+	}
+
+	/**
+	 * Process one generation.
+	 */
+	@Benchmark
+	public void tick() {
+		world.tick();
+	}
+
+}
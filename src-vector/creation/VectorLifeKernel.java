@@ -0,0 +1,258 @@
+package creation;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// @formatter:off
+/**
+ * Row evolver built on the JDK's incubating Vector API. Each lane holds a
+ * word of 64 packed cells, so one vector evolves 256 cells at a time on AVX2
+ * and 512 on AVX-512. The neighbor words of a run of lanes are loaded from the
+ * words one to the west and east of the run, the eight neighbor planes are
+ * summed with the same bitwise full adders as {@link LifeKernel#evolve}, and
+ * the rule is applied with a mask per neighbor count.
+ * 
+ * The first and last words of a row, along with the words left over after the
+ * last full vector, go through {@link LifeKernel#evolveWord}, so the results
+ * are bit-identical to {@link LifeKernel#evolveRow}.
+ * 
+ * This class is kept out of src since it needs the jdk.incubator.vector
+ * module (JDK 16 or later) to compile and to run. It is loaded by name from
+ * {@link LifeKernel#vectorKernel()}, which falls back to the scalar kernel
+ * whenever it is missing.
+ * 
+ * 
+ * ---------------------------------- Build: -----------------------------------
+ * javac -d out src/creation/*.java src/util/*.java
+ * javac --add-modules jdk.incubator.vector -cp out -d out src-vector/creation/*.java
+ * java --add-modules jdk.incubator.vector -cp out creation.GOL_CLI_Main -k vector ...
+ * 
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+// @formatter:on
+final class VectorLifeKernel implements LifeKernel.RowEvolver {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Widest vector shape the hardware supports
+	 */
+	private static final VectorSpecies<Long>	SPECIES	= LongVector.SPECIES_PREFERRED;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates a vector kernel.
+	 * 
+	 * @throws UnsupportedOperationException
+	 *             Occurs when the hardware has no vectors wider than a single
+	 *             long, in which case the scalar kernel is faster
+	 */
+	VectorLifeKernel() {
+		if ( SPECIES.length() < 2 ) {
+			throw new UnsupportedOperationException(
+					"No SIMD support for vectors of longs.");
+		}
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Align the western neighbors of each lane's cells with the lane.
+	 * 
+	 * @param prev
+	 *            Words to the west of the lanes
+	 * @param word
+	 *            Words being evolved
+	 * @return Lanes where bit y holds the cell west of bit y in word
+	 */
+	private static LongVector west(LongVector prev, LongVector word) {
+		return word.lanewise(VectorOperators.LSHL, 1).or(
+				prev.lanewise(VectorOperators.LSHR, 63));
+	}
+
+	/**
+	 * Align the eastern neighbors of each lane's cells with the lane.
+	 * 
+	 * @param word
+	 *            Words being evolved
+	 * @param next
+	 *            Words to the east of the lanes
+	 * @return Lanes where bit y holds the cell east of bit y in word
+	 */
+	private static LongVector east(LongVector word, LongVector next) {
+		return word.lanewise(VectorOperators.LSHR, 1).or(
+				next.lanewise(VectorOperators.LSHL, 63));
+	}
+
+	/**
+	 * Get a bit of an encoded rule as a mask.
+	 * 
+	 * @param rule
+	 *            Encoded rule
+	 * @param bit
+	 *            Bit of the rule to get
+	 * @return All ones if the bit is set, zero otherwise
+	 */
+	private static long ruleMask(long rule, int bit) {
+		return -((rule >>> bit) & 1);
+	}
+
+	/**
+	 * Evolve the lanes of words [w, w + lanes) of a row by one generation.
+	 * The lanes are stored here rather than returned, so that no vector ever
+	 * escapes this method and needs to be boxed when it is not inlined.
+	 * 
+	 * @param cells
+	 *            Rows of the world, along with the halo rows at its edges
+	 * @param north
+	 *            Index of the first word of the row above the evolving row
+	 * @param row
+	 *            Index of the first word of the evolving row
+	 * @param south
+	 *            Index of the first word of the row below the evolving row
+	 * @param out
+	 *            Destination for the evolved lanes
+	 * @param outRow
+	 *            Index of the first word of the evolved row within out
+	 * @param w
+	 *            First word to evolve, with words w - 1 and w + lanes within
+	 *            the row
+	 * @param rule
+	 *            Encoded rule
+	 */
+	private static void evolve(long[] cells, int north, int row, int south,
+			long[] out, int outRow, int w, long rule) {
+		int n0 = north + w, c0 = row + w, s0 = south + w;
+		LongVector n = LongVector.fromArray(SPECIES, cells, n0);
+		LongVector nw = west(LongVector.fromArray(SPECIES, cells, n0 - 1), n);
+		LongVector ne = east(n, LongVector.fromArray(SPECIES, cells, n0 + 1));
+
+		LongVector c = LongVector.fromArray(SPECIES, cells, c0);
+		LongVector wst = west(LongVector.fromArray(SPECIES, cells, c0 - 1), c);
+		LongVector est = east(c, LongVector.fromArray(SPECIES, cells, c0 + 1));
+
+		LongVector s = LongVector.fromArray(SPECIES, cells, s0);
+		LongVector sw = west(LongVector.fromArray(SPECIES, cells, s0 - 1), s);
+		LongVector se = east(s, LongVector.fromArray(SPECIES, cells, s0 + 1));
+
+		// sum each row of neighbors into a two bit value (ones and twos)
+		LongVector northXor = nw.lanewise(VectorOperators.XOR, n);
+		LongVector north0 = northXor.lanewise(VectorOperators.XOR, ne);
+		LongVector north1 = nw.and(n).or(northXor.and(ne));
+
+		LongVector southXor = sw.lanewise(VectorOperators.XOR, s);
+		LongVector south0 = southXor.lanewise(VectorOperators.XOR, se);
+		LongVector south1 = sw.and(s).or(southXor.and(se));
+
+		LongVector mid0 = wst.lanewise(VectorOperators.XOR, est);
+		LongVector mid1 = wst.and(est);
+
+		// sum the three rows into the four bit-planes of the neighbor count
+		LongVector onesXor = north0.lanewise(VectorOperators.XOR, south0);
+		LongVector bit0 = onesXor.lanewise(VectorOperators.XOR, mid0);
+		LongVector onesCarry = north0.and(south0).or(onesXor.and(mid0));
+
+		LongVector twosXor = north1.lanewise(VectorOperators.XOR, south1);
+		LongVector twos = twosXor.lanewise(VectorOperators.XOR, mid1);
+		LongVector twosCarry = north1.and(south1).or(twosXor.and(mid1));
+
+		LongVector bit1 = twos.lanewise(VectorOperators.XOR, onesCarry);
+		LongVector foursCarry = twos.and(onesCarry);
+		LongVector bit2 = twosCarry.lanewise(VectorOperators.XOR, foursCarry);
+		LongVector bit3 = twosCarry.and(foursCarry);
+
+		// masks of the cells with each neighbor count, built from the masks of
+		// the low two and high two bits of the count; everything is written
+		// out since vectors returned from calls that are not inlined, or
+		// carried between loop iterations, are boxed
+		LongVector not0 = bit0.not(), not1 = bit1.not();
+		LongVector low0 = not0.and(not1), low1 = bit0.and(not1);
+		LongVector low2 = not0.and(bit1), low3 = bit0.and(bit1);
+
+		LongVector not3 = bit3.not();
+		LongVector high0 = bit2.not().and(not3), high1 = bit2.and(not3);
+		LongVector high2 = bit2.not().and(bit3);
+
+		LongVector eq0 = low0.and(high0), eq1 = low1.and(high0);
+		LongVector eq2 = low2.and(high0), eq3 = low3.and(high0);
+		LongVector eq4 = low0.and(high1), eq5 = low1.and(high1);
+		LongVector eq6 = low2.and(high1), eq7 = low3.and(high1);
+		LongVector eq8 = low0.and(high2);
+
+		// cells whose count is a birth count, and whose count is a survival
+		// count, as in LifeKernel#applyRule
+		LongVector born = eq0.and(ruleMask(rule, 0))
+				.or(eq1.and(ruleMask(rule, 1)))
+				.or(eq2.and(ruleMask(rule, 2)))
+				.or(eq3.and(ruleMask(rule, 3)))
+				.or(eq4.and(ruleMask(rule, 4)))
+				.or(eq5.and(ruleMask(rule, 5)))
+				.or(eq6.and(ruleMask(rule, 6)))
+				.or(eq7.and(ruleMask(rule, 7)))
+				.or(eq8.and(ruleMask(rule, 8)));
+
+		int survive = LifeKernel.SURVIVE_SHIFT;
+		LongVector survived = eq0.and(ruleMask(rule, survive))
+				.or(eq1.and(ruleMask(rule, survive + 1)))
+				.or(eq2.and(ruleMask(rule, survive + 2)))
+				.or(eq3.and(ruleMask(rule, survive + 3)))
+				.or(eq4.and(ruleMask(rule, survive + 4)))
+				.or(eq5.and(ruleMask(rule, survive + 5)))
+				.or(eq6.and(ruleMask(rule, survive + 6)))
+				.or(eq7.and(ruleMask(rule, survive + 7)))
+				.or(eq8.and(ruleMask(rule, survive + 8)));
+
+		LongVector next = born.and(c.not()).or(survived.and(c));
+		next.intoArray(out, outRow + w);
+	}
+
+	// #########################################################################
+	// Kernel Methods
+	// #########################################################################
+
+	@Override
+	public long evolveRow(long[] cells, int row, int words, long[] out,
+			int outRow, int width, long rule, boolean wrap) {
+		int last = words - 1;
+
+		long next = LifeKernel.evolveWord(cells, row, words, 0, width, rule,
+				wrap);
+		out[outRow] = next;
+		long population = Long.bitCount(next);
+		if ( last == 0 ) {
+			return population;
+		}
+
+		// every vector also loads the word past its last lane, so it must end
+		// before the last word of the row
+		int lanes = SPECIES.length();
+		int north = row - words, south = row + words;
+		int w = 1;
+		for (; w + lanes <= last; w += lanes) {
+			evolve(cells, north, row, south, out, outRow, w, rule);
+			for (int i = outRow + w; i < outRow + w + lanes; i++) {
+				population += Long.bitCount(out[i]);
+			}
+		}
+
+		for (; w <= last; w++) {
+			next = LifeKernel.evolveWord(cells, row, words, w, width, rule,
+					wrap);
+			out[outRow + w] = next;
+			population += Long.bitCount(next);
+		}
+
+		return population;
+	}
+
+}
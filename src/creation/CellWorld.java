@@ -1,5 +1,11 @@
 package creation;
 
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Represents the model(logic) of the implementation. The premise of Conway's
  * Game of Life is, given a finite grid and a predetermined ruleset, a
@@ -14,7 +20,7 @@ package creation;
  * @author Cameron Rader (github: Mr-Sniffles)
  * 
  */
-public class CellWorld {
+public class CellWorld implements PackedWorld {
 
 	// #########################################################################
 	// Global Variables/Constants
@@ -28,12 +34,84 @@ public class CellWorld {
 	 * Indicates a dead cell
 	 */
 	public static final int	DEAD	= 0;
+	/**
+	 * Largest world size, the largest whose rows and halo rows still fit in a
+	 * single array
+	 */
+	public static final int	MAX_SIZE	= 370701;
+
+	/**
+	 * Smallest band of rows that a parallel tick will hand to a single task.
+	 * Smaller bands cost more in scheduling than they gain in parallelism.
+	 */
+	private static final int	MIN_BAND_ROWS	= 64;
+	/**
+	 * A sparse tick falls back to a full scan once more than one in this many
+	 * words changed during the previous tick.
+	 */
+	private static final int	SPARSE_DENSITY	= 8;
+
+	/**
+	 * Number of cells per side of a tile used by tiled ticks. A tile is one
+	 * word wide, so this is also the number of rows in a tile.
+	 */
+	public static final int		TILE_SIZE		= LifeKernel.WORD_BITS;
+
+	/**
+	 * Strategies used to process a tick.
+	 */
+	public enum TickMode {
+		/**
+		 * Every cell of the world is evaluated each tick.
+		 */
+		FULL,
+		/**
+		 * Only words(64 cell spans of a row) that changed during the previous
+		 * tick, and the words around them, are evaluated. Falls back to a full
+		 * scan while the world is too active for this to pay off.
+		 */
+		SPARSE,
+		/**
+		 * The world is split into tiles of {@link CellWorld#TILE_SIZE} cells
+		 * per side. Tiles that did not change during the previous tick, and
+		 * whose neighboring tiles did not either, are skipped entirely.
+		 */
+		TILED
+	}
+
+	/**
+	 * Shapes of the world's boundary, determining the neighbors of cells along
+	 * the edges of the world.
+	 */
+	public enum Topology {
+		/**
+		 * Cells beyond the edges of the world are always dead.
+		 */
+		DEAD_EDGE,
+		/**
+		 * Opposite edges are joined, so cells along the top neighbor cells
+		 * along the bottom and cells along the left neighbor cells along the
+		 * right.
+		 */
+		TORUS,
+		/**
+		 * Left and right edges are joined as in a torus, while the top and
+		 * bottom edges are joined with a half twist: cell (0, y) neighbors
+		 * cell (size - 1, size - 1 - y).
+		 */
+		KLEIN_BOTTLE
+	}
 
 	/**
 	 * Ticks since initial start of simulation. A tick is synonymous with a
 	 * generation.
 	 */
 	private long			tickCount;
+	/**
+	 * Tick count of the initial world state, non-zero only for worlds loaded
+	 * from a checkpoint
+	 */
+	private long			initialTickCount;
 
 	/**
 	 * Initial population of the world (i.e. number of alive cells) before the
@@ -50,25 +128,163 @@ public class CellWorld {
 	 */
 	private int				size;
 	/**
-	 * The initial state of the world before the simulation starts.
+	 * Number of words(longs) used to store a single row of the world
+	 */
+	private int				wordsPerRow;
+	/**
+	 * The initial state of the world before the simulation starts, laid out
+	 * as {@link CellWorld#world}.
 	 */
-	private int[][]			initialWorld;
+	private long[]			initialWorld;
 	/**
-	 * The current state of the world as the simulation progresses.
+	 * The current state of the world as the simulation progresses. Rows are
+	 * bit-packed 64 cells to a long and laid out back to back in a single
+	 * array, after a halo row: the cell at (x, y) is bit (y % 64) of
+	 * world[(x + 1) * wordsPerRow + y / 64]. During a tick, the halo rows
+	 * before the first row and after the last row hold the rows beyond the
+	 * world's edges, so rows within the world never check the world's edge.
+	 * 
+	 * A single array keeps a tick's scan sequential, but limits the world to
+	 * {@link CellWorld#MAX_SIZE} cells per side.
 	 */
-	private int[][]			world;
+	private long[]			world;
+	/**
+	 * Buffer that the next generation is written into during a tick. It is
+	 * swapped with the world array after every tick so that a tick does not
+	 * allocate a new generation.
+	 */
+	private long[]			nextWorld;
 
 	/**
-	 * Defines the rule set of the simulation. If a dead cell is within the
-	 * range of bornMin and bornMax, then that cell is born as an alive cell. If
-	 * an alive cell is within the range of surviveMin and surviveMax, then that
-	 * cell remains alive. In all other cases the cell becomes a dead cell.
+	 * Defines the rule set of the simulation: for each neighbor count, whether
+	 * a dead cell is born and whether an alive cell stays alive. In all other
+	 * cases the cell becomes a dead cell.
 	 * 
 	 * Note: The standard Game of Life is symbolized as "B3/S23": A cell is
 	 * "Born" if it has exactly 3 neighbors, "Stays alive" if it has 2 or 3
 	 * living neighbors; it dies otherwise.
 	 */
-	private int				bornMin, bornMax, surviveMin, surviveMax;
+	private RuleSet			ruleSet;
+	/**
+	 * The rule set compiled for {@link LifeKernel}, so that a tick never
+	 * re-evaluates the rule set itself
+	 */
+	private long			rule;
+
+	/**
+	 * Number of threads used to process a tick. A parallelism of one processes
+	 * ticks serially on the calling thread.
+	 */
+	private int				parallelism;
+	/**
+	 * Pool that processes the row bands of a parallel tick. Null while the
+	 * parallelism is one.
+	 */
+	private ForkJoinPool	tickPool;
+	/**
+	 * Tree of tasks processing the row bands of a parallel tick, reused by
+	 * every tick so that a tick allocates no tasks. Built on first use, and
+	 * dropped whenever the size or the parallelism changes.
+	 */
+	private TickBand		tickBands;
+	/**
+	 * Kernel evolving the full rows of a tick
+	 */
+	private LifeKernel.RowEvolver	rowKernel;
+
+	/**
+	 * Shape of the world's boundary
+	 */
+	private Topology		topology;
+
+	/**
+	 * Strategy used to process each tick
+	 */
+	private TickMode		tickMode;
+	/**
+	 * Indices (x * wordsPerRow + w) of the words that changed during the last
+	 * tick, used by sparse ticks. Only the first activeCount entries are used.
+	 */
+	private int[]			activeWords;
+	/**
+	 * Number of entries in activeWords
+	 */
+	private int				activeCount;
+	/**
+	 * True if activeWords holds every word that differs between the current
+	 * generation and the next generation buffer(the previous generation).
+	 */
+	private boolean			activeValid;
+	/**
+	 * Scratch list and bitmap of the words evaluated by a sparse tick
+	 */
+	private int[]			candidateWords;
+	private long[]			candidateMap;
+
+	/**
+	 * Number of tile rows and tile columns in the world, used by tiled ticks
+	 */
+	private int				tileRows, tileCols;
+	/**
+	 * Number of consecutive ticks each tile went unchanged, indexed by
+	 * (tileX * tileCols + tileY). Zero forces the tile to be evaluated.
+	 */
+	private int[]			tileStableTicks;
+	/**
+	 * Hash of the contents of each tile as of its last evaluation
+	 */
+	private long[]			tileHashes;
+	/**
+	 * True for each tile that changed during the last tick(or was edited
+	 * since)
+	 */
+	private boolean[]		tileDirty;
+	/**
+	 * Scratch flags of the tiles skipped by the tick in progress
+	 */
+	private boolean[]		tileSettled;
+
+	/**
+	 * Change set reused by {@link CellWorld#getChangeSet()}, allocated on
+	 * first use
+	 */
+	private ChangeSet		changeSet;
+	/**
+	 * True if the next generation buffer holds the previous generation, so
+	 * that the changes of the last tick can be found by comparing it with the
+	 * world.
+	 */
+	private boolean			changesKnown;
+
+	/**
+	 * Hash of each row, the xor of {@link CellWorld#wordHash(int, long)} over
+	 * its words. Kept up to date by every tick and edit while cycle detection
+	 * is enabled, and null otherwise.
+	 */
+	private long[]			rowHashes;
+	/**
+	 * History of generation hashes, or null while cycle detection is disabled
+	 */
+	private CycleDetector	cycleDetector;
+	/**
+	 * True if the world changed outside of a tick since the history was last
+	 * recorded, so that the history no longer leads up to the world
+	 */
+	private boolean			historyStale;
+	/**
+	 * Period of the cycle the world is in, or zero if none was found
+	 */
+	private long			cyclePeriod;
+	/**
+	 * Period and generation of a cycle whose hashes matched but that is not
+	 * confirmed yet, or zero if there is none
+	 */
+	private long			candidatePeriod, candidateGeneration;
+	/**
+	 * Cells of the world at the candidate's generation, laid out as by
+	 * {@link CellWorld#copyWorld(long[])} and allocated on first use
+	 */
+	private long[]			candidateWorld;
 
 	// #########################################################################
 	// Constructors
@@ -82,13 +298,15 @@ public class CellWorld {
 		tickCount = 0;
 		populationCount = 0;
 
-		size = 10;
-		initialWorld = new int[size][size];
-		world = new int[size][size];
+		this.setSize(10);
 
-		bornMin = bornMax = 3;
-		surviveMin = 2;
-		surviveMax = 3;
+		ruleSet = RuleSet.CONWAY;
+		rule = ruleSet.encode();
+
+		parallelism = 1;
+		rowKernel = LifeKernel.SCALAR;
+		tickMode = TickMode.FULL;
+		topology = Topology.DEAD_EDGE;
 	}
 
 	/**
@@ -102,13 +320,15 @@ public class CellWorld {
 		tickCount = 0;
 		populationCount = 0;
 
-		size = sz;
-		initialWorld = new int[size][size];
-		world = new int[size][size];
+		this.setSize(sz);
 
-		bornMin = bornMax = 3;
-		surviveMin = 2;
-		surviveMax = 3;
+		ruleSet = RuleSet.CONWAY;
+		rule = ruleSet.encode();
+
+		parallelism = 1;
+		rowKernel = LifeKernel.SCALAR;
+		tickMode = TickMode.FULL;
+		topology = Topology.DEAD_EDGE;
 	}
 
 	/**
@@ -123,21 +343,25 @@ public class CellWorld {
 	public CellWorld(int[][] worldConfig) {
 		tickCount = 0;
 
-		initialWorld = this.duplicateArray(worldConfig);
-		world = this.duplicateArray(worldConfig);
-		size = world.length;
+		this.setSize(worldConfig.length);
+		this.packArray(worldConfig, initialWorld);
+		this.copyArray(initialWorld, world);
 
 		initialPopulationCount = this.countInitialWorldPopulation();
 		populationCount = initialPopulationCount;
 
-		bornMin = bornMax = 3;
-		surviveMin = 2;
-		surviveMax = 3;
+		ruleSet = RuleSet.CONWAY;
+		rule = ruleSet.encode();
+
+		parallelism = 1;
+		rowKernel = LifeKernel.SCALAR;
+		tickMode = TickMode.FULL;
+		topology = Topology.DEAD_EDGE;
 	}
 
 	/**
-	 * TODO: Creates a world based on a pre-configured setup. Uses
-	 * pre-configured rule set.
+	 * Creates a world based on a pre-configured setup. Uses pre-configured
+	 * rule set.
 	 * 
 	 * @precondition worldConfig is initialized
 	 * 
@@ -145,19 +369,27 @@ public class CellWorld {
 	 *            Pre-configured world setup
 	 * 
 	 * @param ruleSet
-	 *            Pre-configured rule set
+	 *            Pre-configured rule set, see {@link RuleSet#parse(String)}
+	 * @throws IllegalArgumentException
+	 *             Occurs when the rule set is malformed
 	 */
 	public CellWorld(int[][] worldConfig, String ruleSet) {
 		tickCount = 0;
 
-		initialWorld = this.duplicateArray(worldConfig);
-		world = this.duplicateArray(worldConfig);
-		size = world.length;
+		this.setSize(worldConfig.length);
+		this.packArray(worldConfig, initialWorld);
+		this.copyArray(initialWorld, world);
 
 		initialPopulationCount = this.countInitialWorldPopulation();
 		populationCount = initialPopulationCount;
 
-		this.parseRuleSet(ruleSet);
+		this.ruleSet = RuleSet.parse(ruleSet);
+		rule = this.ruleSet.encode();
+
+		parallelism = 1;
+		rowKernel = LifeKernel.SCALAR;
+		tickMode = TickMode.FULL;
+		topology = Topology.DEAD_EDGE;
 	}
 
 	// #########################################################################
@@ -165,15 +397,14 @@ public class CellWorld {
 	// #########################################################################
 
 	/**
-	 * TODO: Parse a given rule set string for a born range and a survive range
-	 * 
-	 * Format: B#(#)/S#(#)
+	 * Get the index of the first word of a row within the world's arrays.
 	 * 
-	 * @param ruleSet
-	 * @return
+	 * @param x
+	 *            Row of the world, or -1 and size for the halo rows
+	 * @return Index of the row's first word
 	 */
-	private int[] parseRuleSet(String ruleSet) {
-		return new int[0];
+	private int rowStart(int x) {
+		return (x + 1) * wordsPerRow;
 	}
 
 	/**
@@ -185,61 +416,540 @@ public class CellWorld {
 	 */
 	private long countInitialWorldPopulation() {
 		long count = 0;
-		for (int x = 0; x < size; x++) {
-			for (int y = 0; y < size; y++) {
-				count += initialWorld[x][y];
-			}
+		int end = this.rowStart(size);
+		for (int i = this.rowStart(0); i < end; i++) {
+			count += Long.bitCount(initialWorld[i]);
 		}
 
 		return count;
 	}
 
 	/**
-	 * Gets the number cells that are alive adjacent to the cell at position (x,
-	 * y).
+	 * Process rows [from, to) of the current world into nextGen.
 	 * 
-	 * @precondition x and y are positive integers within the bounds of the
-	 *               world size
+	 * @param nextGen
+	 *            Destination for the next generation
+	 * @param rule
+	 *            Encoded rule set, see {@link LifeKernel}
+	 * @param from
+	 *            First row to process
+	 * @param to
+	 *            Row after the last row to process
+	 * @return Number of living cells in the processed rows of nextGen
+	 */
+	private long tickRows(long[] nextGen, long rule, int from, int to) {
+		long newPop = 0;
+
+		boolean wrap = topology != Topology.DEAD_EDGE;
+		for (int x = from; x < to; x++) {
+			int row = this.rowStart(x);
+			newPop += rowKernel.evolveRow(world, row, wordsPerRow, nextGen,
+					row, size, rule, wrap);
+			if ( rowHashes != null ) {
+				this.updateRowHash(x, world, nextGen);
+			}
+		}
+
+		return newPop;
+	}
+
+	/**
+	 * Process every row of the world in parallel, in bands processed by the
+	 * tick pool. The calling thread parks until the last band is done rather
+	 * than joining the tasks, since a blocked join allocates.
+	 * 
+	 * @param nextGen
+	 *            Destination for the next generation
+	 * @param rule
+	 *            Encoded rule set
+	 * @return Number of living cells in the next generation
+	 */
+	private long tickParallel(long[] nextGen, long rule) {
+		if ( tickBands == null || tickBands.to != size ) {
+			tickBands = new TickBand(null, 0, size);
+		}
+
+		tickBands.prepare(nextGen, rule, Thread.currentThread());
+		tickPool.execute(tickBands);
+
+		// the root band is only marked done just after waking this thread,
+		// and must be before it is reinitialized by the next tick
+		while (!tickBands.isDone()) {
+			if ( tickBands.finished ) {
+				Thread.yield();
+			} else {
+				LockSupport.park(tickBands);
+			}
+		}
+
+		if ( tickBands.failure != null ) {
+			throw tickBands.failure;
+		}
+		return tickBands.population;
+	}
+
+	/**
+	 * Process only the words around the words that changed during the last
+	 * tick into nextGen. Every other word of nextGen already holds the
+	 * previous generation, which is equal to the current generation wherever
+	 * nothing nearby changed, so those words are left untouched.
+	 * 
+	 * @precondition The active set is valid
+	 * 
+	 * @param nextGen
+	 *            Destination for the next generation
+	 * @param rule
+	 *            Encoded rule set, see {@link LifeKernel}
+	 * @return Change in population between this generation and the next
+	 * 
+	 * @postcondition activeWords holds the words that changed
+	 */
+	private long tickActive(long[] nextGen, long rule) {
+		// gather every word within one row and one word of a changed word
+		int candidateCount = 0;
+		for (int i = 0; i < activeCount; i++) {
+			int x = activeWords[i] / wordsPerRow;
+			int w = activeWords[i] % wordsPerRow;
+
+			for (int nx = Math.max(x - 1, 0); nx <= Math.min(x + 1, size - 1); nx++) {
+				for (int nw = Math.max(w - 1, 0); nw <= Math.min(w + 1,
+						wordsPerRow - 1); nw++) {
+					candidateCount = this.markCandidate(nx * wordsPerRow + nw,
+							candidateCount);
+				}
+			}
+		}
+
+		// changes along a joined edge reach across to the opposite edge, so
+		// the words along the border are always evaluated
+		if ( topology != Topology.DEAD_EDGE ) {
+			for (int w = 0; w < wordsPerRow; w++) {
+				candidateCount = this.markCandidate(w, candidateCount);
+				candidateCount = this.markCandidate((size - 1) * wordsPerRow
+						+ w, candidateCount);
+			}
+			for (int x = 0; x < size; x++) {
+				candidateCount = this.markCandidate(x * wordsPerRow,
+						candidateCount);
+				candidateCount = this.markCandidate((x + 1) * wordsPerRow - 1,
+						candidateCount);
+			}
+		}
+
+		boolean wrap = topology != Topology.DEAD_EDGE;
+		long popChange = 0;
+		activeCount = 0;
+		for (int i = 0; i < candidateCount; i++) {
+			int index = candidateWords[i];
+			int x = index / wordsPerRow;
+			int w = index % wordsPerRow;
+
+			// the halo row ahead of the first row shifts every index by a row
+			long current = world[index + wordsPerRow];
+			long next = LifeKernel.evolveWord(world, this.rowStart(x),
+					wordsPerRow, w, size, rule, wrap);
+			nextGen[index + wordsPerRow] = next;
+
+			if ( next != current ) {
+				popChange += Long.bitCount(next) - Long.bitCount(current);
+				activeWords[activeCount++] = index;
+				if ( rowHashes != null ) {
+					rowHashes[x] ^= wordHash(index, current)
+							^ wordHash(index, next);
+				}
+			}
+			candidateMap[index >>> 6] = 0;
+		}
+
+		return popChange;
+	}
+
+	/**
+	 * Add a word to the candidates of a sparse tick unless it already is one.
+	 * 
+	 * @param index
+	 *            Index (x * wordsPerRow + w) of the word
+	 * @param candidateCount
+	 *            Number of candidates so far
+	 * @return Number of candidates including the word
+	 */
+	private int markCandidate(int index, int candidateCount) {
+		long bit = 1L << index;
+		if ( (candidateMap[index >>> 6] & bit) == 0 ) {
+			candidateMap[index >>> 6] |= bit;
+			candidateWords[candidateCount++] = index;
+		}
+		return candidateCount;
+	}
+
+	/**
+	 * Rebuild the active set by comparing the current generation against the
+	 * next generation buffer word by word.
+	 * 
+	 * @param nextGen
+	 *            Fully processed next generation
+	 * 
+	 * @postcondition activeWords holds the words that differ and the active
+	 *                set is valid
+	 */
+	private void recordChanges(long[] nextGen) {
+		activeCount = 0;
+		int words = size * wordsPerRow;
+		for (int index = 0; index < words; index++) {
+			if ( world[index + wordsPerRow] != nextGen[index + wordsPerRow] ) {
+				activeWords[activeCount++] = index;
+			}
+		}
+		activeValid = true;
+	}
+
+	/**
+	 * Process every tile that is not stable into nextGen. A tile is skipped
+	 * when it and all eight of its neighbors went unchanged during the last
+	 * tick: nothing that could affect it changed, so its next generation is
+	 * equal to the previous generation already held by nextGen.
+	 * 
+	 * @param nextGen
+	 *            Destination for the next generation
+	 * @param rule
+	 *            Encoded rule set, see {@link LifeKernel}
+	 * @return Change in population between this generation and the next
+	 * 
+	 * @postcondition The stability, hash, and dirty flag of every tile is up
+	 *                to date.
+	 */
+	private long tickTiles(long[] nextGen, long rule) {
+		// decide which tiles to skip before any stability counts change
+		for (int tx = 0; tx < tileRows; tx++) {
+			for (int ty = 0; ty < tileCols; ty++) {
+				tileSettled[tx * tileCols + ty] = this.isTileSettled(tx, ty);
+			}
+		}
+
+		boolean wrap = topology != Topology.DEAD_EDGE;
+		long popChange = 0;
+		for (int tile = 0; tile < tileSettled.length; tile++) {
+			if ( tileSettled[tile] ) {
+				tileStableTicks[tile]++;
+				tileDirty[tile] = false;
+				continue;
+			}
+
+			int w = tile % tileCols;
+			int fromRow = (tile / tileCols) * TILE_SIZE;
+			int toRow = Math.min(fromRow + TILE_SIZE, size);
+
+			boolean changed = false;
+			long hash = 0;
+			for (int x = fromRow; x < toRow; x++) {
+				int row = this.rowStart(x);
+				long current = world[row + w];
+				long next = LifeKernel.evolveWord(world, row, wordsPerRow, w,
+						size, rule, wrap);
+				nextGen[row + w] = next;
+
+				if ( next != current ) {
+					changed = true;
+					popChange += Long.bitCount(next) - Long.bitCount(current);
+					if ( rowHashes != null ) {
+						int index = x * wordsPerRow + w;
+						rowHashes[x] ^= wordHash(index, current)
+								^ wordHash(index, next);
+					}
+				}
+				hash = (Long.rotateLeft(hash, 7) ^ next) * 0x9E3779B97F4A7C15L;
+			}
+
+			tileStableTicks[tile] = changed ? 0 : tileStableTicks[tile] + 1;
+			tileHashes[tile] = hash;
+			tileDirty[tile] = changed;
+		}
+
+		return popChange;
+	}
+
+	/**
+	 * Check if a tile and its neighboring tiles all went unchanged during the
+	 * last tick. Tiles beyond a dead edge always count as unchanged, while
+	 * tiles along a joined edge are never settled since changes reach them
+	 * from across the world.
+	 * 
+	 * @param tx
+	 *            Tile row
+	 * @param ty
+	 *            Tile column
+	 * @return True if the tile can be skipped
+	 */
+	private boolean isTileSettled(int tx, int ty) {
+		if ( topology != Topology.DEAD_EDGE
+				&& (tx == 0 || ty == 0 || tx == tileRows - 1 || ty == tileCols - 1) ) {
+			return false;
+		}
+
+		for (int nx = Math.max(tx - 1, 0); nx <= Math.min(tx + 1, tileRows - 1); nx++) {
+			for (int ny = Math.max(ty - 1, 0); ny <= Math.min(ty + 1,
+					tileCols - 1); ny++) {
+				if ( tileStableTicks[nx * tileCols + ny] == 0 ) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Mark the word containing the cell at (x, y) as changed after it was
+	 * edited outside of a tick. The word is added to the active set (which is
+	 * invalidated instead if it has no room left), and its tile is flagged as
+	 * unstable and dirty.
 	 * 
 	 * @param x
-	 *            X position of cell to check
+	 *            X position of the edited cell
 	 * @param y
-	 *            Y position of cell to check
-	 * @return Number of living cells adjacent to the cell at (x, y)
+	 *            Y position of the edited cell
 	 */
-	private int getNeighborCount(int x, int y) {
-		int neighbors = 0;
+	private void markActive(int x, int y) {
+		if ( activeValid && activeCount < activeWords.length ) {
+			activeWords[activeCount++] = x * wordsPerRow + (y >>> 6);
+		} else {
+			activeValid = false;
+		}
 
-		for (int i = x - 1; i <= x + 1; i++) {
-			for (int j = y - 1; j <= y + 1; j++) {
-				if ( i >= 0 && i < size && j >= 0 && j < size ) {
-					neighbors += this.getCellState(i, j);
-				}
+		if ( tileStableTicks != null ) {
+			int tile = (x / TILE_SIZE) * tileCols + (y >>> 6);
+			tileStableTicks[tile] = 0;
+			tileDirty[tile] = true;
+		}
+	}
+
+	/**
+	 * Forget all change tracking after the world was replaced outside of a
+	 * tick. The next sparse or tiled tick evaluates the whole world.
+	 */
+	private void invalidateChanges() {
+		activeValid = false;
+		changesKnown = false;
+		if ( tileStableTicks != null ) {
+			Arrays.fill(tileStableTicks, 0);
+			Arrays.fill(tileDirty, true);
+		}
+
+		if ( rowHashes != null ) {
+			this.rehash();
+		}
+		historyStale = true;
+		cyclePeriod = 0;
+	}
+
+	/**
+	 * Hash a word of the world. The hash of a generation is the xor of the
+	 * hashes of its words, so a word that changes only changes the hash by
+	 * the xor of its old and new hashes.
+	 * 
+	 * @param index
+	 *            Index (x * wordsPerRow + w) of the word
+	 * @param word
+	 *            Cells of the word
+	 * @return Hash of the word at its position, zero for dead words
+	 */
+	private static long wordHash(int index, long word) {
+		if ( word == 0 ) {
+			return 0;
+		}
+
+		// finalizer of SplitMix64, spreading every bit of the word
+		long h = word ^ (index + 1) * 0x9E3779B97F4A7C15L;
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Update the hash of a row for the words that changed between two
+	 * generations of it.
+	 * 
+	 * @param x
+	 *            Row being updated
+	 * @param prev
+	 *            Generation holding the row as it was
+	 * @param next
+	 *            Generation holding the row as it is now
+	 */
+	private void updateRowHash(int x, long[] prev, long[] next) {
+		long hash = rowHashes[x];
+		int base = x * wordsPerRow;
+		int row = this.rowStart(x);
+		for (int w = 0; w < wordsPerRow; w++) {
+			long was = prev[row + w], now = next[row + w];
+			if ( was != now ) {
+				hash ^= wordHash(base + w, was) ^ wordHash(base + w, now);
+			}
+		}
+		rowHashes[x] = hash;
+	}
+
+	/**
+	 * Compute the hash of every row from scratch.
+	 */
+	private void rehash() {
+		if ( rowHashes.length != size ) {
+			rowHashes = new long[size];
+		}
+
+		for (int x = 0; x < size; x++) {
+			long hash = 0;
+			int row = this.rowStart(x);
+			for (int w = 0; w < wordsPerRow; w++) {
+				hash ^= wordHash(x * wordsPerRow + w, world[row + w]);
 			}
+			rowHashes[x] = hash;
 		}
+	}
 
-		return this.getCellState(x, y) == CellWorld.ALIVE ? neighbors - 1
-				: neighbors;
+	/**
+	 * Allocate the change tracking buffers needed by the current tick mode
+	 * for the current world size, and release the ones it does not need.
+	 */
+	private void allocateTracking() {
+		activeValid = false;
+		activeCount = 0;
+		if ( tickMode == TickMode.SPARSE ) {
+			int words = size * wordsPerRow;
+			activeWords = new int[words];
+			candidateWords = new int[words];
+			candidateMap = new long[(words + 63) / 64];
+		} else {
+			activeWords = candidateWords = null;
+			candidateMap = null;
+		}
+
+		tileRows = (size + TILE_SIZE - 1) / TILE_SIZE;
+		tileCols = wordsPerRow;
+		if ( tickMode == TickMode.TILED ) {
+			tileStableTicks = new int[tileRows * tileCols];
+			tileHashes = new long[tileRows * tileCols];
+			tileDirty = new boolean[tileRows * tileCols];
+			tileSettled = new boolean[tileRows * tileCols];
+			Arrays.fill(tileDirty, true);
+		} else {
+			tileStableTicks = null;
+			tileHashes = null;
+			tileDirty = tileSettled = null;
+		}
 	}
 
 	/**
-	 * Create a duplicated array equal to an input array.
+	 * Fill the halo rows of the world with the rows that neighbor the first
+	 * and last rows of the world according to its topology.
 	 * 
-	 * @precondition arr is initialized
+	 * @postcondition The halo rows before the first row and after the last
+	 *                row hold the rows beyond the top and bottom edges of the
+	 *                current generation.
+	 */
+	private void prepareHalo() {
+		int north = this.rowStart(-1), south = this.rowStart(size);
+		switch (topology) {
+			case TORUS:
+				System.arraycopy(world, this.rowStart(size - 1), world, north,
+						wordsPerRow);
+				System.arraycopy(world, this.rowStart(0), world, south,
+						wordsPerRow);
+				break;
+			case KLEIN_BOTTLE:
+				LifeKernel.mirrorRow(world, this.rowStart(size - 1), world,
+						north, wordsPerRow, size);
+				LifeKernel.mirrorRow(world, this.rowStart(0), world, south,
+						wordsPerRow, size);
+				break;
+			default:
+				Arrays.fill(world, north, north + wordsPerRow, 0);
+				Arrays.fill(world, south, south + wordsPerRow, 0);
+				break;
+		}
+	}
+
+	/**
+	 * Set the size of the world along with the derived row layout values.
+	 * The initial, current, and next generation buffers are only reallocated
+	 * if the size actually changes; otherwise the existing buffers are kept
+	 * as they are.
 	 * 
-	 * @param arr
-	 *            Array to duplicate
-	 * @return Duplicated array
+	 * @param sz
+	 *            New size of the world
+	 * @throws IllegalArgumentException
+	 *             Occurs when sz is larger than {@link CellWorld#MAX_SIZE}
 	 */
-	private int[][] duplicateArray(int[][] arr) {
-		int[][] dupe = new int[arr.length][arr.length];
+	private void setSize(int sz) {
+		if ( world != null && sz == size ) {
+			return;
+		}
+
+		// checked in long arithmetic, the array length overflows an int
+		long length = (sz + 2L) * ((sz + 63L) / LifeKernel.WORD_BITS);
+		if ( length > Integer.MAX_VALUE - 8 ) {
+			throw new IllegalArgumentException("World too large: " + sz
+					+ " cells per side, expected at most " + MAX_SIZE + ".");
+		}
 
+		size = sz;
+		wordsPerRow = LifeKernel.wordsPerRow(size);
+
+		// room for every row plus the halo rows at either end
+		int words = this.rowStart(size + 1);
+		initialWorld = new long[words];
+		world = new long[words];
+		nextWorld = new long[words];
+		this.allocateTracking();
+	}
+
+	/**
+	 * Pack a cell state array into a bit-packed array. Rows are packed as
+	 * described by {@link CellWorld#world}.
+	 * 
+	 * @precondition arr has a length equal to the world size, and dest is
+	 *               laid out for the world size
+	 * 
+	 * @param arr
+	 *            Cell state array to pack
+	 * @param dest
+	 *            Bit-packed array to overwrite
+	 */
+	private void packArray(int[][] arr, long[] dest) {
+		Arrays.fill(dest, 0);
 		for (int x = 0; x < arr.length; x++) {
+			int row = this.rowStart(x);
 			for (int y = 0; y < arr.length; y++) {
-				dupe[x][y] = arr[x][y];
+				if ( arr[x][y] == CellWorld.ALIVE ) {
+					dest[row + (y >>> 6)] |= 1L << y;
+				}
 			}
 		}
-		return dupe;
+	}
+
+	/**
+	 * Copy the contents of one bit-packed array into another of the same
+	 * length, in a single bulk copy.
+	 * 
+	 * @precondition src and dest are initialized and have equal lengths
+	 * 
+	 * @param src
+	 *            Array to copy from
+	 * @param dest
+	 *            Array to overwrite
+	 */
+	private void copyArray(long[] src, long[] dest) {
+		System.arraycopy(src, 0, dest, 0, src.length);
+	}
+
+	/**
+	 * Make every cell of a bit-packed array dead.
+	 * 
+	 * @param arr
+	 *            Array to clear
+	 */
+	private void clearArray(long[] arr) {
+		Arrays.fill(arr, 0);
 	}
 
 	// #########################################################################
@@ -255,23 +965,108 @@ public class CellWorld {
 	 *            Pre-configured world setup
 	 */
 	public void loadWorld(int[][] newWorld) {
-		world = this.duplicateArray(newWorld);
-		initialWorld = this.duplicateArray(newWorld);
-		size = world.length;
+		this.loadWorld(newWorld, 0);
+	}
+
+	/**
+	 * Load a pre-configured world setup reached after a number of
+	 * generations, restored by {@link CellWorld#reset()}.
+	 * 
+	 * @precondition newWorld is initialized and generation is not negative
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 * @param generation
+	 *            Generation of the world setup
+	 */
+	public void loadWorld(int[][] newWorld, long generation) {
+		this.setSize(newWorld.length);
+		this.packArray(newWorld, initialWorld);
+		this.copyArray(initialWorld, world);
 		initialPopulationCount = this.countInitialWorldPopulation();
 		populationCount = initialPopulationCount;
-		tickCount = 0;
+		tickCount = initialTickCount = generation;
+		this.invalidateChanges();
 	}
 
 	/**
-	 * TODO: Load a pre-configured rule set.
+	 * Load a world from bit-packed rows, as written by
+	 * {@link CellWorld#savePackedWorld(LongBuffer)}. The rows are copied
+	 * straight into the world's buffers in a single bulk copy.
+	 * 
+	 * @precondition packed holds at least newSize *
+	 *               {@link LifeKernel#wordsPerRow(int)} words
+	 * 
+	 * @param newSize
+	 *            Size of the loaded world
+	 * @param packed
+	 *            Rows of the world, each packed as described by
+	 *            {@link CellWorld#world} and without halo rows
+	 * @param generation
+	 *            Generation of the loaded world, restored by
+	 *            {@link CellWorld#reset()}
+	 * 
+	 * @postcondition The packed rows are the initial and current state of the
+	 *                world, and packed is positioned after the last row.
+	 */
+	public void loadPackedWorld(int newSize, LongBuffer packed, long generation) {
+		this.setSize(newSize);
+
+		packed.get(initialWorld, this.rowStart(0), size * wordsPerRow);
+
+		// bits past the last column must stay dead for the kernel
+		long lastMask = -1L >>> (wordsPerRow * LifeKernel.WORD_BITS - size);
+		for (int x = 0; x < size; x++) {
+			initialWorld[this.rowStart(x + 1) - 1] &= lastMask;
+		}
+
+		this.copyArray(initialWorld, world);
+		initialPopulationCount = this.countInitialWorldPopulation();
+		populationCount = initialPopulationCount;
+		tickCount = initialTickCount = generation;
+		this.invalidateChanges();
+	}
+
+	/**
+	 * Save the current state of the world as bit-packed rows, row after row,
+	 * each packed as described by {@link CellWorld#world}.
+	 * 
+	 * @precondition dest has room for size * {@link LifeKernel#wordsPerRow(int)}
+	 *               words
+	 * 
+	 * @param dest
+	 *            Destination of the rows
+	 * 
+	 * @postcondition dest is positioned after the last row
+	 */
+	public void savePackedWorld(LongBuffer dest) {
+		dest.put(world, this.rowStart(0), size * wordsPerRow);
+	}
+
+	/**
+	 * Load a pre-configured rule set.
 	 * 
 	 * @precondition ruleSet follows the rule set format specification
 	 * 
 	 * @param ruleSet
-	 *            Pre-configured rule set
+	 *            Pre-configured rule set, see {@link RuleSet#parse(String)}
+	 * @throws IllegalArgumentException
+	 *             Occurs when the rule set is malformed
 	 */
 	public void loadRuleSet(String ruleSet) {
+		this.ruleSet = RuleSet.parse(ruleSet);
+		rule = this.ruleSet.encode();
+		// regions that settled under the old rule may not be settled anymore
+		this.invalidateChanges();
+	}
+
+	/**
+	 * Get the rule set of the simulation.
+	 * 
+	 * @return Current rule set
+	 */
+	public RuleSet getRuleSet() {
+		return ruleSet;
 	}
 
 	/**
@@ -305,7 +1100,7 @@ public class CellWorld {
 	 * @return The state of the cell at position (x, y)
 	 */
 	public int getCellState(int x, int y) {
-		return world[x][y];
+		return (int) (world[this.rowStart(x) + (y >>> 6)] >>> y) & 1;
 	}
 
 	/**
@@ -325,13 +1120,8 @@ public class CellWorld {
 		if ( state != 0 && state != 1 ) {
 			throw new IllegalStateException("Invalid cell state: "
 					+ "expected '0' or '1'.");
-		} else {
-			world[x][y] = state;
-			if ( state == CellWorld.ALIVE ) {
-				populationCount++;
-			} else {
-				populationCount--;
-			}
+		} else if ( this.getCellState(x, y) != state ) {
+			this.invertCellState(x, y);
 		}
 	}
 
@@ -347,11 +1137,20 @@ public class CellWorld {
 	 *            Y position of cell to check
 	 */
 	public void invertCellState(int x, int y) {
-		// (0 + 1) % 2 = 1
-		// (1 + 1) % 2 = 0
-		int state = (world[x][y] + 1) % 2;
-		world[x][y] = state;
-		if ( state == CellWorld.ALIVE ) {
+		// flip the cell's bit within its word
+		int index = this.rowStart(x) + (y >>> 6);
+		long word = world[index];
+		world[index] = word ^ 1L << y;
+		this.markActive(x, y);
+
+		if ( rowHashes != null ) {
+			int hashIndex = x * wordsPerRow + (y >>> 6);
+			rowHashes[x] ^= wordHash(hashIndex, word)
+					^ wordHash(hashIndex, word ^ 1L << y);
+		}
+		historyStale = true;
+		cyclePeriod = 0;
+		if ( this.getCellState(x, y) == CellWorld.ALIVE ) {
 			populationCount++;
 		} else {
 			populationCount--;
@@ -359,53 +1158,291 @@ public class CellWorld {
 	}
 
 	/**
-	 * Process the next tick/generation of the world. Each cell is processed in
-	 * in current state and its resulting state in placed in a new world. The
-	 * resulting state is determined by the rule set of the world. Once all
-	 * cells have been processed set the current the newly generated world.
+	 * Process the next tick/generation of the world. Each row is processed 64
+	 * cells at a time by {@link LifeKernel}, and its resulting state is placed
+	 * in the next generation buffer. The resulting state is determined by the
+	 * rule set of the world. Once all rows have been processed the buffers are
+	 * swapped, so no memory is allocated by a tick.
+	 * 
+	 * In {@link TickMode#SPARSE} mode only the words near the last tick's
+	 * changes are processed, unless too many words changed. In
+	 * {@link TickMode#TILED} mode settled tiles are skipped.
 	 * 
 	 * @postcondition The world array holds the the generation immediately
 	 *                following its generation at the time of
 	 *                {@link CellWorld#tick()} invocation.
 	 */
 	public void tick() {
-		int[][] nextGen = new int[size][size];
+		long[] nextGen = nextWorld;
 		long newPop = 0;
 
-		for (int x = 0; x < size; x++) {
-			for (int y = 0; y < size; y++) {
-				int neighborCount = this.getNeighborCount(x, y);
-
-				if ( this.getCellState(x, y) == CellWorld.ALIVE
-						&& neighborCount >= surviveMin
-						&& neighborCount <= surviveMax ) {
-					nextGen[x][y] = CellWorld.ALIVE;
-					newPop++;
-				} else if ( this.getCellState(x, y) == CellWorld.DEAD
-						&& neighborCount >= bornMin && neighborCount <= bornMax ) {
-					nextGen[x][y] = CellWorld.ALIVE;
-					newPop++;
-				} else {
-					nextGen[x][y] = CellWorld.DEAD;
-				}
+		if ( cycleDetector != null && historyStale ) {
+			// the history is only meaningful from the current world on
+			cycleDetector.clear();
+			cycleDetector.record(tickCount, this.getGenerationHash(),
+					populationCount);
+			historyStale = false;
+			candidatePeriod = 0;
+		}
+
+		this.prepareHalo();
+		if ( tickMode == TickMode.SPARSE && activeValid
+				&& activeCount <= size * wordsPerRow / SPARSE_DENSITY ) {
+			newPop = populationCount + this.tickActive(nextGen, rule);
+		} else if ( tickMode == TickMode.TILED ) {
+			newPop = populationCount + this.tickTiles(nextGen, rule);
+		} else {
+			if ( tickPool != null && size > MIN_BAND_ROWS ) {
+				newPop = this.tickParallel(nextGen, rule);
+			} else {
+				newPop = this.tickRows(nextGen, rule, 0, size);
+			}
+
+			if ( tickMode == TickMode.SPARSE ) {
+				this.recordChanges(nextGen);
 			}
 		}
 
 		populationCount = newPop;
+		nextWorld = world;
 		world = nextGen;
 
 		tickCount++;
+		changesKnown = true;
+
+		if ( cycleDetector != null ) {
+			long period = cycleDetector.record(tickCount,
+					this.getGenerationHash(), populationCount);
+			if ( cyclePeriod == 0 ) {
+				this.confirmCycle(period);
+			}
+		}
+	}
+
+	/**
+	 * Confirm cycles found by their hashes, which may collide. A candidate
+	 * period is only trusted once the world is seen to repeat exactly, cell
+	 * for cell, one period after the hashes matched; until then no generation
+	 * is skipped.
+	 * 
+	 * @param period
+	 *            Period found by the hashes of the current generation, or
+	 *            zero if none
+	 */
+	private void confirmCycle(long period) {
+		if ( candidatePeriod > 0
+				&& tickCount == candidateGeneration + candidatePeriod ) {
+			if ( this.matchesCandidate() ) {
+				cyclePeriod = candidatePeriod;
+				return;
+			}
+			// a hash collision, the history goes on as before
+			candidatePeriod = 0;
+		}
+
+		if ( candidatePeriod == 0 && period > 0 ) {
+			if ( candidateWorld == null
+					|| candidateWorld.length != size * wordsPerRow ) {
+				candidateWorld = new long[size * wordsPerRow];
+			}
+			this.copyWorld(candidateWorld);
+			candidatePeriod = period;
+			candidateGeneration = tickCount;
+		}
+	}
+
+	/**
+	 * Check if the world holds the same cells as at the candidate's
+	 * generation.
+	 * 
+	 * @return True if every word equals the candidate's
+	 */
+	private boolean matchesCandidate() {
+		int start = this.rowStart(0);
+		for (int i = 0; i < candidateWorld.length; i++) {
+			if ( world[start + i] != candidateWorld[i] ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Advance the world by n generations back to back, using the current tick
+	 * mode and parallelism. Once cycle detection finds that the world is
+	 * cycling, the whole cycles left are skipped instead of ticked.
+	 * Interrupts are checked between generations.
+	 * 
+	 * @precondition n is not negative
+	 * 
+	 * @param n
+	 *            Number of generations to advance
+	 * @return Number of generations advanced
+	 */
+	@Override
+	public long advance(long n) {
+		long advanced = 0;
+		while (advanced < n && !Thread.currentThread().isInterrupted()) {
+			advanced += this.skipCycles(n - advanced);
+			if ( advanced < n ) {
+				this.tick();
+				advanced++;
+			}
+		}
+		return advanced;
+	}
+
+	/**
+	 * Copy the bit-packed cells of the world into a single array, row after
+	 * row: the cell at (x, y) goes to bit (y % 64) of
+	 * dest[x * wordsPerRow + y / 64].
+	 * 
+	 * @param dest
+	 *            Destination of at least size * wordsPerRow words
+	 */
+	void copyWorld(long[] dest) {
+		System.arraycopy(world, this.rowStart(0), dest, 0, size * wordsPerRow);
+	}
+
+	/**
+	 * Get the cells flipped by the last tick, along with any cells edited
+	 * since. The change set is found by comparing the world with the previous
+	 * generation one word at a time, so it costs a 64th of a tick to build
+	 * and holds a single entry per changed word.
+	 * 
+	 * @return Change set of the last tick, valid until the world next changes;
+	 *         or null if the world was loaded, reset or cleared since the
+	 *         last tick
+	 */
+	public ChangeSet getChangeSet() {
+		if ( !changesKnown ) {
+			return null;
+		}
+
+		if ( changeSet == null || changeSet.capacity() != size * wordsPerRow ) {
+			changeSet = new ChangeSet(size * wordsPerRow);
+		}
+
+		changeSet.clear();
+		for (int x = 0; x < size; x++) {
+			int row = this.rowStart(x);
+			for (int w = 0; w < wordsPerRow; w++) {
+				long diff = world[row + w] ^ nextWorld[row + w];
+				if ( diff != 0 ) {
+					changeSet.add(x, w * LifeKernel.WORD_BITS, diff);
+				}
+			}
+		}
+
+		return changeSet;
+	}
+
+	/**
+	 * Enable or disable cycle detection. While enabled, every tick keeps a
+	 * 64-bit hash of the world up to date, one changed word at a time, and
+	 * checks it against the hashes of the last maxPeriod generations. A match
+	 * is confirmed by comparing the world cell for cell one period later, so
+	 * a cycle is only reported one period after the world first repeats.
+	 * 
+	 * @precondition maxPeriod is zero or greater
+	 * 
+	 * @param maxPeriod
+	 *            Longest period of the cycles to find, or zero to disable
+	 *            cycle detection
+	 */
+	public void setCycleDetection(int maxPeriod) {
+		if ( maxPeriod < 0 ) {
+			throw new IllegalArgumentException("Invalid cycle period: "
+					+ "expected zero or a positive number of generations.");
+		}
+
+		if ( maxPeriod == 0 ) {
+			cycleDetector = null;
+			rowHashes = null;
+		} else {
+			cycleDetector = new CycleDetector(maxPeriod);
+			rowHashes = new long[size];
+			this.rehash();
+		}
+		historyStale = true;
+		cyclePeriod = 0;
+	}
+
+	/**
+	 * Get the longest period of the cycles found by cycle detection.
+	 * 
+	 * @return Longest period found, or zero if cycle detection is disabled
+	 */
+	public int getCycleDetection() {
+		return cycleDetector == null ? 0 : cycleDetector.capacity() - 1;
+	}
+
+	/**
+	 * Get the hash of the current generation. Equal worlds always have equal
+	 * hashes, at the same position.
+	 * 
+	 * @return 64-bit hash of the world's cells, zero for an empty world
+	 */
+	public long getGenerationHash() {
+		long hash = 0;
+		if ( rowHashes != null ) {
+			for (int x = 0; x < size; x++) {
+				hash ^= rowHashes[x];
+			}
+		} else {
+			for (int x = 0; x < size; x++) {
+				int row = this.rowStart(x);
+				for (int w = 0; w < wordsPerRow; w++) {
+					hash ^= wordHash(x * wordsPerRow + w, world[row + w]);
+				}
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Get the period of the cycle the world is in: the world repeats itself
+	 * every period generations, forever. Still lifes have a period of one.
+	 * 
+	 * @return Period of the cycle, or zero if cycle detection is disabled or
+	 *         no cycle was confirmed since the world last changed outside of
+	 *         a tick
+	 */
+	public long getCyclePeriod() {
+		return cyclePeriod;
+	}
+
+	/**
+	 * Skip as many whole cycles as fit within a number of generations. The
+	 * world is unchanged by a whole cycle, so only the tick count moves.
+	 * 
+	 * @param generations
+	 *            Most generations to skip
+	 * @return Number of generations skipped, a multiple of the cycle's period;
+	 *         zero if no cycle was found
+	 */
+	public long skipCycles(long generations) {
+		if ( cyclePeriod == 0 || generations < cyclePeriod ) {
+			return 0;
+		}
+
+		long skipped = generations - generations % cyclePeriod;
+		tickCount += skipped;
+		cycleDetector.shift(skipped);
+		return skipped;
 	}
 
 	/**
 	 * Reset the state of the world to its initial state.
 	 * 
-	 * @postcondition The world array holds the zeroth generation
+	 * @postcondition The world array holds its initial generation(the zeroth,
+	 *                unless the world was loaded from a checkpoint)
 	 */
 	public void reset() {
-		world = this.duplicateArray(initialWorld);
+		this.copyArray(initialWorld, world);
 		populationCount = initialPopulationCount;
-		tickCount = 0;
+		tickCount = initialTickCount;
+		this.invalidateChanges();
 	}
 
 	/**
@@ -415,25 +1452,29 @@ public class CellWorld {
 	 *                tick and population counts are set to zero.
 	 */
 	public void clear() {
-		initialWorld = new int[size][size];
-		world = new int[size][size];
-		tickCount = 0;
+		this.clearArray(initialWorld);
+		this.clearArray(world);
+		tickCount = initialTickCount = 0;
 		populationCount = initialPopulationCount = 0;
+		this.invalidateChanges();
 	}
 
 	/**
-	 * Resize the world to newSize and clear it.
+	 * Resize the world to newSize and clear it. The world's buffers are only
+	 * reallocated if newSize differs from the current size.
 	 * 
 	 * @precondition newSize is greater than zero
 	 * 
 	 * @param newSize
 	 *            New size of the world
+	 * @throws IllegalArgumentException
+	 *             Occurs when newSize is larger than {@link CellWorld#MAX_SIZE}
 	 * 
 	 * @postcondition The world array is resized to newSize and cleared by
 	 *                {@link CellWorld#clear()}.
 	 */
 	public void resize(int newSize) {
-		size = newSize;
+		this.setSize(newSize);
 		this.clear();
 	}
 
@@ -441,10 +1482,163 @@ public class CellWorld {
 	 * Sets the initial state of the world to the current state of the world.
 	 */
 	public void syncInitialState() {
-		initialWorld = this.duplicateArray(world);
+		this.copyArray(world, initialWorld);
 		initialPopulationCount = populationCount;
 	}
 
+	/**
+	 * Set the number of threads used to process each tick. Every row only
+	 * depends on the previous generation, so bands of rows are processed
+	 * independently and the resulting generation is identical to a serial
+	 * tick.
+	 * 
+	 * @precondition threads is greater than zero
+	 * 
+	 * @param threads
+	 *            Number of threads to use, or one to tick serially
+	 */
+	public void setParallelism(int threads) {
+		if ( threads < 1 ) {
+			throw new IllegalArgumentException("Invalid parallelism: "
+					+ "expected a positive number of threads.");
+		}
+
+		if ( tickPool != null ) {
+			tickPool.shutdown();
+			tickPool = null;
+		}
+
+		parallelism = threads;
+		tickBands = null;
+		if ( parallelism > 1 ) {
+			tickPool = new ForkJoinPool(parallelism);
+		}
+	}
+
+	/**
+	 * Get the number of threads used to process each tick.
+	 * 
+	 * @return Number of threads used per tick
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Choose between the scalar and the vector kernel for the full rows of a
+	 * tick. The vector kernel evolves several words per instruction with the
+	 * JDK's incubating Vector API, and gives exactly the same generations. It
+	 * is only available when compiled(see src-vector) and when the JVM runs
+	 * with --add-modules jdk.incubator.vector; otherwise the scalar kernel
+	 * stays in use. Sparse and tiled ticks still evolve single words.
+	 * 
+	 * @param vectorized
+	 *            True to use the vector kernel, false for the scalar kernel
+	 * @return True if the vector kernel is in use
+	 */
+	public boolean setVectorized(boolean vectorized) {
+		LifeKernel.RowEvolver kernel = vectorized ? LifeKernel.vectorKernel()
+				: null;
+		rowKernel = kernel != null ? kernel : LifeKernel.SCALAR;
+		return kernel != null;
+	}
+
+	/**
+	 * Check if the full rows of a tick are evolved by the vector kernel.
+	 * 
+	 * @return True if the vector kernel is in use
+	 */
+	public boolean isVectorized() {
+		return rowKernel != LifeKernel.SCALAR;
+	}
+
+	/**
+	 * Set the strategy used to process each tick. Every mode produces the same
+	 * generations; they only differ in how much of the world is evaluated.
+	 * 
+	 * @param mode
+	 *            Tick strategy to use
+	 */
+	public void setTickMode(TickMode mode) {
+		tickMode = mode;
+		this.allocateTracking();
+	}
+
+	/**
+	 * Get the strategy used to process each tick.
+	 * 
+	 * @return Current tick strategy
+	 */
+	public TickMode getTickMode() {
+		return tickMode;
+	}
+
+	/**
+	 * Set the shape of the world's boundary.
+	 * 
+	 * @param topology
+	 *            New topology of the world
+	 */
+	public void setTopology(Topology topology) {
+		this.topology = topology;
+		this.invalidateChanges();
+	}
+
+	/**
+	 * Get the shape of the world's boundary.
+	 * 
+	 * @return Topology of the world
+	 */
+	public Topology getTopology() {
+		return topology;
+	}
+
+	/**
+	 * Check if a tile changed during the last tick or was edited since. Only
+	 * tracked in {@link TickMode#TILED} mode; every tile is reported dirty
+	 * otherwise. Tiles are {@link CellWorld#TILE_SIZE} cells per side, and
+	 * tile (tx, ty) covers the cells starting at (tx * TILE_SIZE, ty *
+	 * TILE_SIZE).
+	 * 
+	 * @param tx
+	 *            Tile row
+	 * @param ty
+	 *            Tile column
+	 * @return True if any cell within the tile may have changed
+	 */
+	public boolean isTileDirty(int tx, int ty) {
+		return tileDirty == null || tileDirty[tx * tileCols + ty];
+	}
+
+	/**
+	 * Get the number of consecutive ticks a tile went unchanged. Only tracked
+	 * in {@link TickMode#TILED} mode.
+	 * 
+	 * @param tx
+	 *            Tile row
+	 * @param ty
+	 *            Tile column
+	 * @return Number of ticks the tile has been stable for
+	 */
+	public int getTileStableTicks(int tx, int ty) {
+		return tileStableTicks == null ? 0 : tileStableTicks[tx * tileCols
+				+ ty];
+	}
+
+	/**
+	 * Get the hash of a tile's contents as of its last evaluation. Only
+	 * tracked in {@link TickMode#TILED} mode.
+	 * 
+	 * @param tx
+	 *            Tile row
+	 * @param ty
+	 *            Tile column
+	 * @return Hash of the tile's cells
+	 */
+	public long getTileHash(int tx, int ty) {
+		return tileHashes == null ? 0 : tileHashes[tx * tileCols + ty];
+	}
+
 	/**
 	 * Get the number of ticks since start
 	 * 
@@ -479,4 +1673,147 @@ public class CellWorld {
 		return out.toString();
 	}
 
+	// #########################################################################
+	// Internal Classes
+	// #########################################################################
+
+	/**
+	 * Fork/join task processing a band of rows during a parallel tick. Bands
+	 * are split in half until they are small enough to process directly, and
+	 * the population of each half is summed on the way back up as each band
+	 * completes, so no task ever waits on another. The whole tree of bands is
+	 * built once and reinitialized before every tick, and the population is
+	 * kept unboxed, so a parallel tick allocates nothing.
+	 */
+	@SuppressWarnings("serial")
+	final class TickBand extends CountedCompleter<Void> {
+
+		/**
+		 * Rows [from, to) processed by this task
+		 */
+		private final int				from, to;
+		/**
+		 * Halves of the band, or null if the band is processed directly
+		 */
+		private final TickBand			upper, lower;
+
+		/**
+		 * Destination for the next generation
+		 */
+		private long[]					nextGen;
+		/**
+		 * Encoded rule set
+		 */
+		private long					rule;
+		/**
+		 * Number of living cells in the band of the next generation, once
+		 * the band is complete
+		 */
+		private long					population;
+
+		/**
+		 * Thread waiting on the whole tick, only set on the root band
+		 */
+		private Thread					waiter;
+		/**
+		 * True once every band is complete, only set on the root band
+		 */
+		private volatile boolean		finished;
+		/**
+		 * First failure of a band, only set on the root band
+		 */
+		private volatile RuntimeException	failure;
+
+		/**
+		 * Creates the tree of tasks for rows [from, to), splitting the band
+		 * while each half would still keep its threads busy.
+		 * 
+		 * @param parent
+		 *            Band this band is half of, or null for the root band
+		 * @param from
+		 *            First row to process
+		 * @param to
+		 *            Row after the last row to process
+		 */
+		TickBand(TickBand parent, int from, int to) {
+			super(parent);
+			this.from = from;
+			this.to = to;
+
+			int rows = to - from;
+			if ( rows <= MIN_BAND_ROWS || rows <= size / (parallelism * 4) ) {
+				upper = lower = null;
+			} else {
+				int mid = from + rows / 2;
+				upper = new TickBand(this, from, mid);
+				lower = new TickBand(this, mid, to);
+			}
+		}
+
+		/**
+		 * Ready the whole tree for another tick.
+		 * 
+		 * @param nextGen
+		 *            Destination for the next generation
+		 * @param rule
+		 *            Encoded rule set
+		 * @param waiter
+		 *            Thread to unpark once the tick is done, or null below
+		 *            the root band
+		 */
+		void prepare(long[] nextGen, long rule, Thread waiter) {
+			this.reinitialize();
+			this.nextGen = nextGen;
+			this.rule = rule;
+			this.waiter = waiter;
+			finished = false;
+			failure = null;
+			if ( upper != null ) {
+				upper.prepare(nextGen, rule, null);
+				lower.prepare(nextGen, rule, null);
+			}
+		}
+
+		/**
+		 * Process the band, forking its upper half. A band with halves
+		 * completes once both halves did.
+		 */
+		@Override
+		public void compute() {
+			if ( upper != null ) {
+				this.setPendingCount(1);
+				upper.fork();
+				lower.compute();
+				return;
+			}
+
+			try {
+				population = tickRows(nextGen, rule, from, to);
+			} catch (RuntimeException e) {
+				// reported by the root band, so the tick never hangs
+				((TickBand) this.getRoot()).failure = e;
+			}
+			this.tryComplete();
+		}
+
+		/**
+		 * Sum the population of the halves, and wake the waiting thread once
+		 * the root band completes.
+		 * 
+		 * @param caller
+		 *            Band that completed this band
+		 */
+		@Override
+		public void onCompletion(CountedCompleter<?> caller) {
+			if ( upper != null ) {
+				population = upper.population + lower.population;
+			}
+			if ( waiter != null ) {
+				finished = true;
+				LockSupport.unpark(waiter);
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,152 @@
+package creation;
+
+/**
+ * Cells flipped by the last generation of a world, stored as a list of
+ * changed words(64 cell spans of a row): the row and first column of each
+ * word, and a mask of the cells within the word that flipped. Cell y of a word
+ * is bit (y - {@link ChangeSet#getColumn(int)}) of its mask.
+ *
+ * A change set is reused from generation to generation, so it is only valid
+ * until its world next changes.
+ *
+ * @author Cameron Rader (github: Mr-Sniffles)
+ *
+ */
+public final class ChangeSet {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Row of each changed word
+	 */
+	private int[]	rows;
+	/**
+	 * First column of each changed word
+	 */
+	private int[]	columns;
+	/**
+	 * Cells flipped within each changed word
+	 */
+	private long[]	masks;
+	/**
+	 * Number of changed words
+	 */
+	private int		count;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates an empty change set able to hold capacity words.
+	 *
+	 * @param capacity
+	 *            Largest number of words the change set may hold
+	 */
+	ChangeSet(int capacity) {
+		rows = new int[capacity];
+		columns = new int[capacity];
+		masks = new long[capacity];
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Get the number of words this change set is able to hold.
+	 *
+	 * @return Capacity of the change set
+	 */
+	int capacity() {
+		return masks.length;
+	}
+
+	/**
+	 * Remove every word from the change set.
+	 */
+	void clear() {
+		count = 0;
+	}
+
+	/**
+	 * Add a changed word to the change set.
+	 *
+	 * @precondition The change set holds fewer words than its capacity
+	 *
+	 * @param row
+	 *            Row of the word
+	 * @param column
+	 *            First column of the word
+	 * @param mask
+	 *            Cells flipped within the word
+	 */
+	void add(int row, int column, long mask) {
+		rows[count] = row;
+		columns[count] = column;
+		masks[count] = mask;
+		count++;
+	}
+
+	// #########################################################################
+	// Change Set Methods
+	// #########################################################################
+
+	/**
+	 * Get the number of changed words
+	 *
+	 * @return Number of changed words
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Get the row of a changed word
+	 *
+	 * @param i
+	 *            Index of the changed word (0 to size - 1)
+	 * @return Row of the word
+	 */
+	public int getRow(int i) {
+		return rows[i];
+	}
+
+	/**
+	 * Get the first column of a changed word
+	 *
+	 * @param i
+	 *            Index of the changed word (0 to size - 1)
+	 * @return Column of the cell held by bit 0 of the word's mask
+	 */
+	public int getColumn(int i) {
+		return columns[i];
+	}
+
+	/**
+	 * Get the cells flipped within a changed word
+	 *
+	 * @param i
+	 *            Index of the changed word (0 to size - 1)
+	 * @return Mask of the flipped cells, never zero
+	 */
+	public long getMask(int i) {
+		return masks[i];
+	}
+
+	/**
+	 * Get the number of flipped cells
+	 *
+	 * @return Number of cells flipped across every changed word
+	 */
+	public long getCellCount() {
+		long cells = 0;
+		for (int i = 0; i < count; i++) {
+			cells += Long.bitCount(masks[i]);
+		}
+		return cells;
+	}
+
+}
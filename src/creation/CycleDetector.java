@@ -0,0 +1,195 @@
+package creation;
+
+import java.util.Arrays;
+
+/**
+ * Bounded history of generation hashes, used by {@link CellWorld} to find
+ * worlds that repeat themselves. The hashes of the last maxPeriod + 1
+ * generations are kept in a ring, and indexed by an open-addressing table so
+ * that every generation is checked against the whole history in constant time.
+ * 
+ * A generation matches an earlier one when both have the same hash and the
+ * same population. A false match needs a 64-bit hash collision between two
+ * generations of equal population within the history, so matches are only
+ * candidates, which {@link CellWorld} confirms cell for cell before trusting.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+final class CycleDetector {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Marks an empty slot of the index
+	 */
+	private static final int	EMPTY	= -1;
+
+	/**
+	 * Generation, hash, and population of each entry of the ring
+	 */
+	private final long[]		generations, hashes, populations;
+	/**
+	 * Position of the oldest entry of the ring, and number of entries
+	 */
+	private int					oldest, count;
+	/**
+	 * Index from hash to the position of its newest entry in the ring
+	 */
+	private final int[]			index;
+	/**
+	 * Mask of a hash giving its preferred slot in the index
+	 */
+	private final int			mask;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates an empty history able to find cycles up to maxPeriod
+	 * generations long.
+	 * 
+	 * @param maxPeriod
+	 *            Longest period found
+	 */
+	CycleDetector(int maxPeriod) {
+		int capacity = maxPeriod + 1;
+		generations = new long[capacity];
+		hashes = new long[capacity];
+		populations = new long[capacity];
+
+		// keep the index at most half full
+		index = new int[Integer.highestOneBit(capacity) << 2];
+		mask = index.length - 1;
+		this.clear();
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Find the slot of the index holding a hash.
+	 * 
+	 * @param hash
+	 *            Hash to find
+	 * @return Slot holding the hash, or the empty slot where it belongs
+	 */
+	private int find(long hash) {
+		int slot = (int) hash & mask;
+		while (index[slot] != EMPTY && hashes[index[slot]] != hash) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Empty a slot of the index, moving later entries of its probe run back
+	 * so that every entry stays reachable from its preferred slot.
+	 * 
+	 * @param slot
+	 *            Slot to empty
+	 */
+	private void remove(int slot) {
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			if ( index[next] == EMPTY ) {
+				break;
+			}
+
+			// an entry may fill the hole unless its preferred slot lies
+			// cyclically within (slot, next]
+			int preferred = (int) hashes[index[next]] & mask;
+			boolean reachable = slot <= next ? slot < preferred
+					&& preferred <= next : slot < preferred
+					|| preferred <= next;
+			if ( !reachable ) {
+				index[slot] = index[next];
+				slot = next;
+			}
+		}
+		index[slot] = EMPTY;
+	}
+
+	// #########################################################################
+	// Detector Methods
+	// #########################################################################
+
+	/**
+	 * Get the number of generations kept by the history.
+	 * 
+	 * @return Longest period found, plus one
+	 */
+	int capacity() {
+		return generations.length;
+	}
+
+	/**
+	 * Forget every generation.
+	 */
+	void clear() {
+		oldest = count = 0;
+		Arrays.fill(index, EMPTY);
+	}
+
+	/**
+	 * Add a generation to the history, replacing the oldest generation once
+	 * the history is full, and check if it repeats an earlier one.
+	 * 
+	 * @param generation
+	 *            Generation number
+	 * @param hash
+	 *            Hash of the generation's cells
+	 * @param population
+	 *            Population of the generation
+	 * @return Number of generations since the newest earlier generation with
+	 *         the same hash and population, or zero if there is none in the
+	 *         history
+	 */
+	long record(long generation, long hash, long population) {
+		long period = 0;
+		int slot = this.find(hash);
+		if ( index[slot] != EMPTY && populations[index[slot]] == population ) {
+			period = generation - generations[index[slot]];
+		}
+
+		int capacity = generations.length;
+		if ( count == capacity ) {
+			// drop the oldest entry, unless a newer entry took over its hash
+			int evicted = this.find(hashes[oldest]);
+			if ( index[evicted] == oldest ) {
+				this.remove(evicted);
+			}
+			oldest = (oldest + 1) % capacity;
+			count--;
+		}
+
+		int entry = (oldest + count) % capacity;
+		generations[entry] = generation;
+		hashes[entry] = hash;
+		populations[entry] = population;
+		count++;
+
+		// the slot may have moved while removing the evicted entry
+		index[this.find(hash)] = entry;
+		return period;
+	}
+
+	/**
+	 * Renumber every generation of the history, after the world skipped
+	 * ahead by whole cycles.
+	 * 
+	 * @param delta
+	 *            Number of generations skipped
+	 */
+	void shift(long delta) {
+		for (int i = 0; i < generations.length; i++) {
+			generations[i] += delta;
+		}
+	}
+
+}
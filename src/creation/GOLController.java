@@ -5,14 +5,21 @@ import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.MouseInputAdapter;
 
-import util.GOLErrorHandler;
 import util.GOLFileHandler;
 
 
@@ -31,6 +38,16 @@ public class GOLController {
 	// Global Variables/Constants
 	// #########################################################################
 
+	/**
+	 * Delay(in milliseconds) between each frame rendered by the view, for
+	 * about 60 frames per second.
+	 */
+	private static final int	FRAME_DELAY	= 16;
+	/**
+	 * Longest period of the cycles detected in a {@link CellWorld}
+	 */
+	private static final int	MAX_CYCLE_PERIOD	= 64;
+
 	/**
 	 * Displays information from the model to the user.
 	 */
@@ -39,21 +56,66 @@ public class GOLController {
 	 * Holds the logic and data of the simulation and performs simulation
 	 * calculations.
 	 */
-	private CellWorld	model;
+	private GOLModel	model;
 
 	/**
-	 * Delay(in milliseconds) between each tick of the simulation.
+	 * Delay(in milliseconds) between each tick of the simulation. A delay of
+	 * zero runs the simulation at maximum speed, one tick straight after
+	 * another.
 	 */
-	private int			simulationDelay;
+	private volatile int		simulationDelay;
 
 	/**
 	 * True if the simulation is running, false otherwise.
 	 */
-	private boolean		isRunning;
+	private volatile boolean	isRunning;
+	/**
+	 * True if the simulation stops by itself once the world starts cycling.
+	 */
+	private volatile boolean	stopOnCycle;
+	/**
+	 * Position of the last cell inverted by the mouse while the button is held
+	 * down, so that dragging within a cell does not invert it again.
+	 */
+	private int			lastCellX, lastCellY;
+
+	/**
+	 * Latest snapshot of the model published for the view, or null once the
+	 * view has taken it. While the view has not taken a snapshot yet, the
+	 * simulation keeps ticking without publishing new ones, so generations
+	 * the view has no time to render are skipped instead of slowing down the
+	 * simulation.
+	 */
+	private final AtomicReference<WorldSnapshot>	latestSnapshot	= new AtomicReference<WorldSnapshot>();
+	/**
+	 * Snapshot currently displayed by the view. Only used on the event
+	 * dispatch thread.
+	 */
+	private WorldSnapshot							renderedSnapshot;
+	/**
+	 * Version of the last snapshot published. Guarded by the model's lock.
+	 */
+	private long									snapshotVersion;
 	/**
-	 * True if the left mouse button is being held down, false if it is not.
+	 * Ticks since the last snapshot was published. Guarded by the model's
+	 * lock.
 	 */
-	private boolean		mouseButtonDown;
+	private long									ticksSincePublish;
+	/**
+	 * Renders the latest snapshot on the event dispatch thread once per frame
+	 */
+	private Timer									renderTimer;
+
+	/**
+	 * Runs the simulation's ticks on a single background thread. The thread
+	 * is idle whenever the simulation is stopped.
+	 */
+	private ScheduledExecutorService				simulationExecutor;
+	/**
+	 * Task ticking the running simulation, null while stopped. Only used on
+	 * the event dispatch thread.
+	 */
+	private Future<?>								simulationTask;
 
 	// #########################################################################
 	// Constructors
@@ -78,7 +140,7 @@ public class GOLController {
 	 * @param model
 	 *            Model to act on
 	 */
-	public GOLController(GOLView view, CellWorld model) {
+	public GOLController(GOLView view, GOLModel model) {
 		this.view = view;
 		this.model = model;
 
@@ -97,21 +159,28 @@ public class GOLController {
 	private void init() {
 		simulationDelay = 100;
 		isRunning = false;
-		mouseButtonDown = false;
+		lastCellX = lastCellY = -1;
+		stopOnCycle = view.isStopOnCycleSelected();
 
 		// sync the view with model data
-		view.resizeGrid(model.getWorldSize());
-		this.updateViewGrid();
-		view.setPopulationLabelValue(model.getPopulationCount());
-		view.setGenerationLabelValue(model.getTickCount());
+		synchronized (model) {
+			if ( model instanceof CellWorld ) {
+				((CellWorld) model).setCycleDetection(MAX_CYCLE_PERIOD);
+			}
+			this.publishSnapshot();
+		}
+		renderTimer = new Timer(FRAME_DELAY, new RenderListener());
+		renderTimer.start();
 
 		// add menu listeners
 		view.addSaveItemListener(new SaveItemListener());
 		view.addLoadItemListener(new LoadItemListener());
 		view.addResizeItemListener(new ResizeItemListener());
+		view.addStopOnCycleItemListener(new StopOnCycleItemListener());
+		view.addJumpItemListener(new JumpItemListener());
 
-		// add cell panel listeners
-		this.addViewGridListeners();
+		// add grid listener
+		view.addGridListener(new GridCellListener());
 
 		// add speed listeners
 		view.addSpeedAdjustListener(new SpeedAdjustListener());
@@ -119,6 +188,7 @@ public class GOLController {
 
 		// add button control listeners
 		view.addStartStopToggleListener(new StartStopToggleListener());
+		view.addStepButtonListener(new StepButtonListener());
 		view.addResetButtonListener(new ResetButtonListener());
 		view.addClearButtonListener(new ClearButtonListener());
 	}
@@ -133,7 +203,7 @@ public class GOLController {
 	 * @param model
 	 *            Model to set
 	 */
-	public void setModel(CellWorld model) {
+	public void setModel(GOLModel model) {
 		this.model = model;
 	}
 
@@ -149,29 +219,199 @@ public class GOLController {
 	}
 
 	/**
-	 * Add listeners to every cell panel in the view grid display
+	 * Start the simulation thread. The simulation begins ticking once it is
+	 * started by the user.
+	 * 
+	 * @precondition All required data is initialized and the simulation is
+	 *               ready to begin.
 	 * 
-	 * @postcondition Each cell panel belonging to the view has a listener
-	 *                attached to it.
+	 * @postcondition The simulation thread is ready to process ticks.
 	 */
-	private void addViewGridListeners() {
-		for (int x = 0; x < model.getWorldSize(); x++) {
-			for (int y = 0; y < model.getWorldSize(); y++) {
-				view.addCellPanelListener(x, y, new GridCellListener());
+	public void beginSimulation() {
+		if ( simulationExecutor == null ) {
+			simulationExecutor = Executors
+					.newSingleThreadScheduledExecutor(new SimulationThreadFactory());
+		}
+	}
+
+	/**
+	 * Start ticking the simulation. If the simulation runs for the first
+	 * time(tickCount = 0), then also sets the initial state of the model.
+	 * 
+	 * @precondition {@link GOLController#beginSimulation()} was called.
+	 * 
+	 * @postcondition The simulation is running.
+	 */
+	public void startSimulation() {
+		if ( isRunning ) {
+			return;
+		}
+
+		synchronized (model) {
+			if ( model.getTickCount() == 0 ) {
+				model.syncInitialState();
 			}
 		}
+
+		isRunning = true;
+		view.setStartStopToggleText("Stop");
+		this.scheduleSimulation();
 	}
 
 	/**
-	 * Start the simulation loop in a new thread.
+	 * Stop ticking the simulation. The tick in progress, if any, is completed
+	 * and published.
 	 * 
-	 * @precondition All required data is initialized and the simulation is
-	 *               ready to begin.
+	 * @postcondition The simulation is stopped.
+	 */
+	public void stopSimulation() {
+		isRunning = false;
+		view.setStartStopToggleText("Start");
+
+		if ( simulationTask != null ) {
+			simulationTask.cancel(true);
+			simulationTask = null;
+			simulationExecutor.execute(new PublishTask());
+		}
+	}
+
+	/**
+	 * Advance the stopped simulation to a generation as fast as the model
+	 * allows. The simulation counts as running until the jump completes, so
+	 * the start/stop toggle cancels it like a running simulation.
+	 * 
+	 * @precondition {@link GOLController#beginSimulation()} was called.
 	 * 
-	 * @postcondition The simulation loop is running.
+	 * @param generation
+	 *            Generation to jump to, past the model's current generation
 	 */
-	public void beginSimulation() {
-		new Thread(new SimulationLoop()).start();
+	public void jumpSimulation(long generation) {
+		if ( isRunning ) {
+			return;
+		}
+
+		synchronized (model) {
+			if ( model.getTickCount() == 0 ) {
+				model.syncInitialState();
+			}
+		}
+
+		isRunning = true;
+		view.setStartStopToggleText("Stop");
+		simulationTask = simulationExecutor.submit(new JumpTask(generation));
+	}
+
+	/**
+	 * Process a single tick of the stopped simulation.
+	 * 
+	 * @precondition {@link GOLController#beginSimulation()} was called.
+	 */
+	public void stepSimulation() {
+		if ( isRunning ) {
+			return;
+		}
+
+		synchronized (model) {
+			if ( model.getTickCount() == 0 ) {
+				model.syncInitialState();
+			}
+		}
+
+		simulationExecutor.execute(new StepTask());
+	}
+
+	/**
+	 * Set the delay between each tick of the simulation, rescheduling the
+	 * running simulation to the new pace.
+	 * 
+	 * @param delay
+	 *            Delay in milliseconds, or zero for maximum speed
+	 */
+	private void setSimulationDelay(int delay) {
+		if ( delay == simulationDelay ) {
+			return;
+		}
+
+		simulationDelay = delay;
+		if ( isRunning ) {
+			this.scheduleSimulation();
+		}
+	}
+
+	/**
+	 * Replace the task ticking the running simulation with one matching the
+	 * current simulation delay: a fixed rate task ticking once per delay, or a
+	 * loop ticking continuously at maximum speed.
+	 */
+	private void scheduleSimulation() {
+		if ( simulationTask != null ) {
+			simulationTask.cancel(true);
+		}
+
+		if ( simulationDelay > 0 ) {
+			simulationTask = simulationExecutor.scheduleAtFixedRate(
+					new TickTask(), 0, simulationDelay, TimeUnit.MILLISECONDS);
+		} else {
+			simulationTask = simulationExecutor.submit(new MaxSpeedTask());
+		}
+	}
+
+	/**
+	 * Perform a model tick and publish the new generation, unless the
+	 * simulation runs at maximum speed and the view has yet to render the
+	 * last generation published. The running simulation stops by itself when
+	 * the tick finds that the world started cycling, if enabled.
+	 * 
+	 * @precondition Called on the simulation thread.
+	 * 
+	 * @param force
+	 *            True to tick even if the simulation is not running
+	 */
+	private void tickSimulation(boolean force) {
+		synchronized (model) {
+			// the simulation may have been stopped while waiting
+			if ( !isRunning && !force ) {
+				return;
+			}
+
+			long period = this.getCyclePeriod();
+			model.tick();
+			ticksSincePublish++;
+
+			// only stop when the cycle is new, so that a cycling world can
+			// still be run on purpose
+			if ( isRunning && stopOnCycle && period == 0
+					&& this.getCyclePeriod() > 0 ) {
+				isRunning = false;
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						// the user may have started the simulation since
+						if ( !isRunning ) {
+							stopSimulation();
+						}
+					}
+				});
+			}
+
+			if ( simulationDelay > 0 || !isRunning
+					|| latestSnapshot.get() == null ) {
+				this.publishSnapshot();
+			}
+		}
+	}
+
+	/**
+	 * Get the period of the cycle the model is in.
+	 * 
+	 * @precondition The calling thread holds the model's lock.
+	 * 
+	 * @return Period of the cycle, or zero if none was found or the model does
+	 *         not detect cycles
+	 */
+	private long getCyclePeriod() {
+		return model instanceof CellWorld ? ((CellWorld) model)
+				.getCyclePeriod() : 0;
 	}
 
 	/**
@@ -183,14 +423,12 @@ public class GOLController {
 	 *                view displays the data from the new reset model.
 	 */
 	private void resetSimulation() {
-		isRunning = false;
-
-		model.reset();
+		this.stopSimulation();
 
-		view.setPopulationLabelValue(model.getPopulationCount());
-		view.setGenerationLabelValue(model.getTickCount());
-		view.setStartStopToggleText("Start");
-		this.updateViewGrid();
+		synchronized (model) {
+			model.reset();
+			this.publishSnapshot();
+		}
 	}
 
 	/**
@@ -202,41 +440,111 @@ public class GOLController {
 	 *                view displays the data from the new reset model.
 	 */
 	private void clearSimulation() {
-		isRunning = false;
+		this.stopSimulation();
 		view.clear();
-		model.clear();
 
-		this.updateViewGrid();
+		synchronized (model) {
+			model.clear();
+			this.publishSnapshot();
+		}
 	}
 
 	/**
-	 * Update all cell panels of the view with the corresponding data from the
-	 * model's world.
+	 * Publish a snapshot of the model for the view to render, replacing any
+	 * snapshot the view has not taken yet.
 	 * 
-	 * @precondition All required data is initialized.
+	 * @precondition The calling thread holds the model's lock.
+	 */
+	private void publishSnapshot() {
+		// the model's change set only covers the last tick
+		ChangeSet changes = ticksSincePublish == 1 ? model.getChangeSet() : null;
+		latestSnapshot.set(WorldSnapshot.capture(model, ++snapshotVersion,
+				changes));
+		ticksSincePublish = 0;
+	}
+
+	/**
+	 * Render the latest snapshot published, if the view has not rendered it
+	 * yet. Only the cells that differ from the snapshot currently displayed
+	 * are updated, and only the area around them is repainted.
+	 * 
+	 * @precondition Called on the event dispatch thread.
 	 * 
-	 * @postcondition The view's panel grid is updated to match model's world.
+	 * @postcondition The view displays the latest snapshot published.
 	 */
-	private void updateViewGrid() {
-		for (int x = 0; x < model.getWorldSize(); x++) {
-			for (int y = 0; y < model.getWorldSize(); y++) {
-				view.updateGridCell(x, y, model.getCellState(x, y));
-			}
+	private void renderFrame() {
+		WorldSnapshot snapshot = latestSnapshot.getAndSet(null);
+		if ( snapshot == null ) {
+			return;
+		}
+
+		WorldSnapshot rendered = renderedSnapshot;
+		if ( rendered == null
+				|| rendered.getWorldSize() != snapshot.getWorldSize() ) {
+			view.resizeGrid(snapshot.getWorldSize());
+			this.renderWords(snapshot, null, false);
+		} else {
+			// the snapshot's changes only apply on top of the one before it
+			boolean changesOnly = snapshot.hasChanges()
+					&& snapshot.getVersion() == rendered.getVersion() + 1;
+			this.renderWords(snapshot, rendered, changesOnly);
 		}
+
+		view.setPopulationLabelValue(snapshot.getPopulationCount());
+		view.setGenerationLabelValue(snapshot.getTickCount());
+		view.setCycleLabelValue(snapshot.getCyclePeriod());
+		renderedSnapshot = snapshot;
 	}
 
 	/**
-	 * Load a new cell panel grid in the view that matches the model's world.
-	 * Should only be called if the new grid is a different size than the
-	 * current one.
+	 * Update the grid cells of the view that differ between two snapshots,
+	 * and repaint the bounding rectangle of those cells.
 	 * 
-	 * @postcondition View's panel grid is updated to match model's world,
-	 *                including size.
+	 * @param snapshot
+	 *            Snapshot to display
+	 * @param rendered
+	 *            Snapshot currently displayed, or null if the view displays
+	 *            only dead cells
+	 * @param changesOnly
+	 *            True to only compare the words changed since rendered, as
+	 *            listed by snapshot
 	 */
-	private void loadNewViewGrid() {
-		view.resizeGrid(model.getWorldSize());
-		this.addViewGridListeners();
-		this.updateViewGrid();
+	private void renderWords(WorldSnapshot snapshot, WorldSnapshot rendered,
+			boolean changesOnly) {
+		int wordsPerRow = snapshot.getWordsPerRow();
+		int count = changesOnly ? snapshot.getChangedWordCount() : snapshot
+				.getWorldSize() * wordsPerRow;
+
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+		int maxX = -1, maxY = -1;
+		for (int i = 0; i < count; i++) {
+			int index = changesOnly ? snapshot.getChangedWord(i) : i;
+			long word = snapshot.getWord(index);
+			long diff = rendered == null ? word : word ^ rendered.getWord(index);
+			if ( diff == 0 ) {
+				continue;
+			}
+
+			int x = index / wordsPerRow;
+			int column = (index % wordsPerRow) * 64;
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+			minY = Math.min(minY, column + Long.numberOfTrailingZeros(diff));
+			maxY = Math.max(maxY, column + 63 - Long.numberOfLeadingZeros(diff));
+
+			// visit only the cells that differ
+			while (diff != 0) {
+				int bit = Long.numberOfTrailingZeros(diff);
+				view.updateGridCell(x, column + bit, (int) (word >>> bit) & 1);
+				diff &= diff - 1;
+			}
+		}
+
+		if ( rendered == null ) {
+			view.repaintGrid();
+		} else if ( maxX >= 0 ) {
+			view.repaintGridArea(minX, minY, maxX, maxY);
+		}
 	}
 
 	/**
@@ -248,8 +556,10 @@ public class GOLController {
 	 * @postcondition Grid of model/view are resized to a size of resizeValue
 	 */
 	private void resizeAll(int resizeValue) {
-		model.resize(resizeValue);
-		this.loadNewViewGrid();
+		synchronized (model) {
+			model.resize(resizeValue);
+			this.publishSnapshot();
+		}
 	}
 
 	// #########################################################################
@@ -267,14 +577,15 @@ public class GOLController {
 		 */
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			isRunning = false;
-			view.setStartStopToggleText("Start");
+			stopSimulation();
 
 			int action = view.showSaveFileChooser();
 			File selection = view.getFileChooserSelection();
 			if ( selection != null && action == JFileChooser.APPROVE_OPTION ) {
 				try {
-					GOLFileHandler.saveWorldFile(selection, model);
+					synchronized (model) {
+						GOLFileHandler.saveWorldFile(selection, model);
+					}
 				} catch (IOException exc) {
 					exc.printStackTrace();
 					System.err.println("\nError: Unable to save world.");
@@ -296,22 +607,23 @@ public class GOLController {
 		 */
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			isRunning = false;
-			view.setStartStopToggleText("Start");
+			stopSimulation();
 
 			int action = view.showLoadFileChooser();
 			File selection = view.getFileChooserSelection();
 			if ( selection != null && action == JFileChooser.APPROVE_OPTION ) {
 				try {
-					int[][] world = GOLFileHandler.parseWorldFile(selection);
-					model.loadWorld(world);
-					loadNewViewGrid();
-					view.setPopulationLabelValue(model.getPopulationCount());
-					view.setGenerationLabelValue(model.getTickCount());
+					synchronized (model) {
+						GOLFileHandler.loadWorldFile(selection, model);
+						publishSnapshot();
+					}
 				} catch (IOException exc) {
 					exc.printStackTrace();
 					System.err.println("\nError: Cannot read file. "
 							+ "Make sure formatting is correct.");
+				} catch (IllegalArgumentException exc) {
+					System.err.println("\nError: Unsupported rule set: "
+							+ exc.getMessage());
 				}
 			}
 		}
@@ -330,8 +642,7 @@ public class GOLController {
 		 */
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			isRunning = false;
-			view.setStartStopToggleText("Start");
+			stopSimulation();
 
 			view.showResizeDialog();
 			String valueString = view.getResizeDialogValue();
@@ -366,7 +677,7 @@ public class GOLController {
 		public void stateChanged(ChangeEvent e) {
 			int newSpeed = view.getSpeedAdjustValue();
 			view.setSpeedDisplayText(newSpeed + "");
-			simulationDelay = newSpeed;
+			setSimulationDelay(newSpeed);
 		}
 
 	}
@@ -391,37 +702,98 @@ public class GOLController {
 			}
 
 			view.setSpeedAdjustValue(newSpeed);
-			simulationDelay = newSpeed;
+			setSimulationDelay(newSpeed);
 		}
 
 	}
 
 	/**
-	 * Listener for view's start/stop toggle button.
+	 * Listener for view's jump menu item.
 	 */
-	class StartStopToggleListener implements ActionListener {
+	class JumpItemListener implements ActionListener {
 
 		/**
-		 * Inverts the running flag. If the simulation is being flagged to run
-		 * for the first time(tickCount = 0), then also sets the initial state
-		 * of the model.
+		 * Stop the simulation and open a jump dialog. If the input is a
+		 * generation past the current one, jump to it.
 		 */
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			if ( model.getTickCount() == 0 ) {
-				model.syncInitialState();
+			stopSimulation();
+
+			long current;
+			synchronized (model) {
+				current = model.getTickCount();
+			}
+
+			view.showJumpDialog(current);
+			String valueString = view.getJumpDialogValue();
+			if ( valueString != null ) {
+				try {
+					long generation = Long.parseLong(valueString.trim());
+					if ( generation > current ) {
+						jumpSimulation(generation);
+					} else {
+						JOptionPane.showMessageDialog(view,
+								"Generation must be past the current generation.");
+					}
+				} catch (NumberFormatException exc) {
+					exc.printStackTrace();
+					System.err.println("\nError: Input was not a number");
+				}
 			}
+		}
+
+	}
+
+	/**
+	 * Listener for view's stop when cycling menu item.
+	 */
+	class StopOnCycleItemListener implements ActionListener {
 
-			isRunning = !isRunning;
+		/**
+		 * Applies the setting to the running simulation.
+		 */
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			stopOnCycle = view.isStopOnCycleSelected();
+		}
+
+	}
+
+	/**
+	 * Listener for view's start/stop toggle button.
+	 */
+	class StartStopToggleListener implements ActionListener {
+
+		/**
+		 * Starts the simulation if it is stopped, and stops it otherwise.
+		 */
+		@Override
+		public void actionPerformed(ActionEvent e) {
 			if ( isRunning ) {
-				view.setStartStopToggleText("Stop");
+				stopSimulation();
 			} else {
-				view.setStartStopToggleText("Start");
+				startSimulation();
 			}
 		}
 
 	}
 
+	/**
+	 * Listener for view's step button.
+	 */
+	class StepButtonListener implements ActionListener {
+
+		/**
+		 * Processes a single tick of the stopped simulation.
+		 */
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			stepSimulation();
+		}
+
+	}
+
 	/**
 	 * Listener for view's reset button.
 	 */
@@ -453,99 +825,224 @@ public class GOLController {
 	}
 
 	/**
-	 * Listener for view's cell panel.
+	 * Listener for view's grid display.
 	 */
 	class GridCellListener extends MouseInputAdapter {
 
 		/**
-		 * Helper method that inverts the cell clicked in the model and view,
-		 * and update population count accordingly.
+		 * Helper method that inverts the cell under the cursor in the model
+		 * and view, and update population count accordingly. Does nothing if
+		 * the cursor is outside of the grid or still over the last cell
+		 * inverted.
 		 * 
 		 * @param e
 		 *            Event passed by mouse listener
 		 */
 		private void invertCell(MouseEvent e) {
-			CellPanel src = (CellPanel) e.getSource();
-			int x = src.getxPos();
-			int y = src.getyPos();
+			int x = view.getGridRowAt(e.getY());
+			int y = view.getGridColumnAt(e.getX());
+			if ( x < 0 || y < 0 || x >= model.getWorldSize()
+					|| y >= model.getWorldSize()
+					|| (x == lastCellX && y == lastCellY) ) {
+				return;
+			}
 
+			lastCellX = x;
+			lastCellY = y;
 			view.invertGridCell(x, y);
-			model.invertCellState(x, y);
-			view.setPopulationLabelValue(model.getPopulationCount());
+			synchronized (model) {
+				model.invertCellState(x, y);
+				publishSnapshot();
+				view.setPopulationLabelValue(model.getPopulationCount());
+			}
 		}
 
 		/**
-		 * Flag the left mouse button as pressed down and invert the cell
-		 * clicked.
+		 * Invert the cell clicked.
 		 */
 		@Override
 		public void mousePressed(MouseEvent e) {
-			mouseButtonDown = true;
 			this.invertCell(e);
 		}
 
 		/**
-		 * Flag the left mouse button as released.
+		 * Forget the last cell inverted once the mouse button is released.
 		 */
 		@Override
 		public void mouseReleased(MouseEvent e) {
-			mouseButtonDown = false;
+			lastCellX = lastCellY = -1;
 		}
 
 		/**
-		 * Invert the cell that the cursor is over if the left mouse button is
-		 * flagged as pressed down.
+		 * Invert each new cell that the cursor is dragged over.
 		 */
 		@Override
-		public void mouseEntered(MouseEvent e) {
-			if ( mouseButtonDown ) {
-				this.invertCell(e);
-			}
+		public void mouseDragged(MouseEvent e) {
+			this.invertCell(e);
 		}
 
 	}
 
 	/**
-	 * Simulation control loop. Runs indefinitely once the simulation has been
-	 * initialized and started.
+	 * Listener for the render timer.
 	 */
-	class SimulationLoop implements Runnable {
+	class RenderListener implements ActionListener {
 
 		/**
-		 * Perform a model tick and update view with new model data.
+		 * Render the latest snapshot of the model.
 		 */
-		private void update() {
-			model.tick();
-			updateViewGrid();
-			view.setPopulationLabelValue(model.getPopulationCount());
-			view.setGenerationLabelValue(model.getTickCount());
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			renderFrame();
 		}
 
+	}
+
+	/**
+	 * Creates the simulation thread.
+	 */
+	static class SimulationThreadFactory implements ThreadFactory {
+
 		/**
-		 * If the simulation is flagged as running then process model ticks;
-		 * otherwise, simply fire a keep-alive signal.
+		 * Create a daemon thread, so that the simulation never keeps the
+		 * application alive.
 		 */
 		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "simulation");
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+	/**
+	 * Task ticking the running simulation once, scheduled at the rate of the
+	 * simulation delay.
+	 */
+	class TickTask implements Runnable {
+
+		@Override
+		public void run() {
+			tickSimulation(false);
+		}
+
+	}
+
+	/**
+	 * Task ticking the running simulation at maximum speed until it is
+	 * stopped or rescheduled.
+	 */
+	class MaxSpeedTask implements Runnable {
+
+		@Override
 		public void run() {
+			// cancelling the task interrupts the thread
+			while (isRunning && !Thread.currentThread().isInterrupted()) {
+				tickSimulation(false);
+			}
+		}
 
-			while (true) {
+	}
+
+	/**
+	 * Task ticking the stopped simulation once.
+	 */
+	class StepTask implements Runnable {
 
-				if ( isRunning ) {
+		@Override
+		public void run() {
+			tickSimulation(true);
+		}
 
-					this.update();
+	}
 
-					try {
-						Thread.sleep(simulationDelay);
-					} catch (InterruptedException e) {
-						e.printStackTrace();
-						System.exit(GOLErrorHandler.THREAD_INTERRUPT_ERROR);
+	/**
+	 * Task advancing the simulation to a generation in batches. Each batch
+	 * holds the model's lock for about a frame, so the view can show the
+	 * progress and the user can still edit the world in between. Batches grow
+	 * while they finish within a frame, which lets engines that jump many
+	 * generations at once(i.e. hashlife) take large strides.
+	 */
+	class JumpTask implements Runnable {
+
+		/**
+		 * Generation to jump to
+		 */
+		private final long	generation;
+
+		/**
+		 * Creates a task jumping to a generation.
+		 * 
+		 * @param generation
+		 *            Generation to jump to
+		 */
+		JumpTask(long generation) {
+			this.generation = generation;
+		}
+
+		@Override
+		public void run() {
+			long batch = 1;
+			// cancelling the task interrupts the thread, ending the batch
+			while (!Thread.currentThread().isInterrupted()) {
+				long elapsed;
+				synchronized (model) {
+					long remaining = generation - model.getTickCount();
+					if ( remaining <= 0 ) {
+						break;
 					}
 
+					long start = System.nanoTime();
+					ticksSincePublish += model.advance(Math.min(batch,
+							remaining));
+					elapsed = System.nanoTime() - start;
+
+					if ( latestSnapshot.get() == null ) {
+						publishSnapshot();
+					}
 				}
-				System.out.print(""); // keep-alive
+
+				if ( elapsed < TimeUnit.MILLISECONDS.toNanos(FRAME_DELAY) ) {
+					batch = Math.min(batch << 1, Long.MAX_VALUE >>> 1);
+				} else if ( batch > 1 ) {
+					batch >>>= 1;
+				}
+			}
+
+			if ( !Thread.currentThread().isInterrupted() ) {
+				synchronized (model) {
+					isRunning = false;
+					publishSnapshot();
+				}
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						// the user may have started the simulation since
+						if ( !isRunning ) {
+							stopSimulation();
+						}
+					}
+				});
 			}
+		}
+
+	}
 
+	/**
+	 * Task publishing the generations skipped while the view was behind, once
+	 * the simulation stops.
+	 */
+	class PublishTask implements Runnable {
+
+		@Override
+		public void run() {
+			synchronized (model) {
+				if ( ticksSincePublish > 0 ) {
+					publishSnapshot();
+				}
+			}
 		}
 
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package creation;
+
+/**
+ * Model surface of the implementation used by {@link GOLController} and the
+ * file utilities. Any simulation engine implementing this interface can be
+ * driven by the view and controller unchanged.
+ * 
+ * Cells are addressed by (x, y) where x is the row and y is the column of the
+ * cell within a square world of {@link GOLModel#getWorldSize()} cells per
+ * side.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public interface GOLModel {
+
+	/**
+	 * Load a pre-configured world setup.
+	 * 
+	 * @precondition newWorld is initialized
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 */
+	void loadWorld(int[][] newWorld);
+
+	/**
+	 * Load a pre-configured world setup reached after a number of
+	 * generations(i.e. restored from a checkpoint). The tick count starts
+	 * from that generation, and {@link GOLModel#reset()} returns to it.
+	 * 
+	 * @precondition newWorld is initialized and generation is not negative
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 * @param generation
+	 *            Generation of the world setup
+	 */
+	void loadWorld(int[][] newWorld, long generation);
+
+	/**
+	 * Load a pre-configured rule set.
+	 * 
+	 * @precondition ruleSet follows the rule set format specification
+	 * 
+	 * @param ruleSet
+	 *            Pre-configured rule set, see {@link RuleSet#parse(String)}
+	 * @throws IllegalArgumentException
+	 *             Occurs when the rule set is malformed or not supported by
+	 *             the model
+	 */
+	void loadRuleSet(String ruleSet);
+
+	/**
+	 * Get the rule set of the simulation.
+	 * 
+	 * @return Current rule set
+	 */
+	RuleSet getRuleSet();
+
+	/**
+	 * Get the world size
+	 * 
+	 * @return World size
+	 */
+	int getWorldSize();
+
+	/**
+	 * Get the population(alive cell) count.
+	 * 
+	 * @return Number of alive cells
+	 */
+	long getPopulationCount();
+
+	/**
+	 * Get the state of the cell at (x, y)
+	 * 
+	 * @precondition x and y are positive integers within the bounds of the
+	 *               world size
+	 * 
+	 * @param x
+	 *            X position of cell to check
+	 * @param y
+	 *            Y position of cell to check
+	 * @return The state of the cell at position (x, y)
+	 */
+	int getCellState(int x, int y);
+
+	/**
+	 * Set the state of the cell at (x, y)
+	 * 
+	 * @precondition x and y are positive integers within the bounds of the
+	 *               world size; and state is either 0 or 1.
+	 * 
+	 * @param x
+	 *            X position of cell to set
+	 * @param y
+	 *            Y position of cell to set
+	 * @param state
+	 *            The state to set the cell to
+	 */
+	void setCellState(int x, int y, int state);
+
+	/**
+	 * Invert the state of the cell (i.e. 0 -> 1, 1 -> 0)
+	 * 
+	 * @precondition x and y are positive integers within the bounds of the
+	 *               world size
+	 * 
+	 * @param x
+	 *            X position of cell to check
+	 * @param y
+	 *            Y position of cell to check
+	 */
+	void invertCellState(int x, int y);
+
+	/**
+	 * Process the next tick/generation of the world.
+	 */
+	void tick();
+
+	/**
+	 * Advance the world by n generations back to back, as fast as the engine
+	 * allows. Nothing is reported between generations. The run stops early if
+	 * the calling thread is interrupted, leaving its interrupt status set.
+	 * 
+	 * @precondition n is not negative
+	 * 
+	 * @param n
+	 *            Number of generations to advance
+	 * @return Number of generations advanced, less than n only if interrupted
+	 */
+	long advance(long n);
+
+	/**
+	 * Get the cells flipped by the last tick, along with any cells edited
+	 * since. Views use this to redraw only the cells that changed.
+	 * 
+	 * @return Change set of the last tick, valid until the world next changes;
+	 *         or null if the changes are not known and the whole world must
+	 *         be redrawn
+	 */
+	ChangeSet getChangeSet();
+
+	/**
+	 * Reset the state of the world to its initial state.
+	 */
+	void reset();
+
+	/**
+	 * Completely clear the world, making all cells dead.
+	 */
+	void clear();
+
+	/**
+	 * Resize the world to newSize and clear it.
+	 * 
+	 * @precondition newSize is greater than zero
+	 * 
+	 * @param newSize
+	 *            New size of the world
+	 */
+	void resize(int newSize);
+
+	/**
+	 * Sets the initial state of the world to the current state of the world.
+	 */
+	void syncInitialState();
+
+	/**
+	 * Get the number of ticks since start
+	 * 
+	 * @return Number of ticks since start
+	 */
+	long getTickCount();
+
+}
@@ -5,7 +5,6 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.GridLayout;
 import java.awt.Insets;
 import java.awt.event.ActionListener;
 import java.io.File;
@@ -13,6 +12,7 @@ import java.io.File;
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -23,7 +23,6 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JSlider;
 import javax.swing.JTextField;
-import javax.swing.border.LineBorder;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.MouseInputAdapter;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -60,6 +59,18 @@ public class GOLView extends JFrame {
 	 * Action items belonging to the file menu
 	 */
 	private JMenuItem		saveItem, loadItem, resizeItem;
+	/**
+	 * Menu for simulation settings
+	 */
+	private JMenu			simulationMenu;
+	/**
+	 * Setting to stop the simulation once the world starts cycling
+	 */
+	private JCheckBoxMenuItem	stopOnCycleItem;
+	/**
+	 * Action item to jump ahead to a generation
+	 */
+	private JMenuItem		jumpItem;
 
 	/**
 	 * File chooser for saving and loading world configurations
@@ -69,21 +80,21 @@ public class GOLView extends JFrame {
 	 * Result(user-input) gathered by the grid resizer dialog
 	 */
 	private String			resizeDialogValue;
-
 	/**
-	 * Container for grid display
+	 * Result(user-input) gathered by the jump dialog
 	 */
-	private JPanel			gridPanel;
+	private String			jumpDialogValue;
+
 	/**
-	 * Grid of cell panels depicting the state of every cell in the world
+	 * Grid display depicting the state of every cell in the world
 	 */
-	private CellPanel[][]	grid;
+	private GridCanvas		grid;
 	/**
 	 * Size of the world grid
 	 */
 	private int				gridSize;
 	/**
-	 * Color settings for cell panels
+	 * Color settings for grid cells
 	 */
 	private Color			aliveCellColor, deadCellColor, cellBorderColor;
 
@@ -102,11 +113,11 @@ public class GOLView extends JFrame {
 	/**
 	 * Simulation control buttons
 	 */
-	private JButton			startStopToggle, resetButton, clearButton;
+	private JButton			startStopToggle, stepButton, resetButton, clearButton;
 	/**
 	 * Information display labels
 	 */
-	private JLabel			populationLabel, generationLabel;
+	private JLabel			populationLabel, generationLabel, cycleLabel;
 
 	// #########################################################################
 	// Constructors
@@ -150,9 +161,14 @@ public class GOLView extends JFrame {
 		fileChooser = new JFileChooser();
 		FileNameExtensionFilter filter = new FileNameExtensionFilter(".txt",
 				"txt", "text");
+		fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(".rle",
+				"rle"));
+		fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(
+				".gol, .golz", "gol", "golz"));
 		fileChooser.setFileFilter(filter);
 
 		resizeDialogValue = "";
+		jumpDialogValue = "";
 
 	}
 
@@ -178,7 +194,18 @@ public class GOLView extends JFrame {
 		fileMenu.add(resizeItem);
 		// --- end file menu ---
 
+		// --- start simulation menu ---
+		simulationMenu = new JMenu("Simulation");
+
+		stopOnCycleItem = new JCheckBoxMenuItem("Stop When Cycling", true);
+		simulationMenu.add(stopOnCycleItem);
+
+		jumpItem = new JMenuItem("Jump to Generation..");
+		simulationMenu.add(jumpItem);
+		// --- end simulation menu ---
+
 		menuBar.add(fileMenu);
+		menuBar.add(simulationMenu);
 
 		this.setJMenuBar(menuBar);
 	}
@@ -187,22 +214,9 @@ public class GOLView extends JFrame {
 	 * Initializes and displays the grid display.
 	 */
 	private void initGridDisplay() {
-		gridPanel = new JPanel();
+		grid = new GridCanvas(gridSize, deadCellColor, cellBorderColor);
 
-		grid = new CellPanel[gridSize][gridSize];
-
-		gridPanel.setLayout(new GridLayout(gridSize, gridSize));
-
-		// initialize all cell panels and add them to the grid
-		for (int x = 0; x < gridSize; x++) {
-			for (int y = 0; y < gridSize; y++) {
-				JPanel p2 = grid[x][y] = new CellPanel(x, y);
-				p2.setBorder(new LineBorder(cellBorderColor, 1));
-				gridPanel.add(p2);
-			}
-		}
-
-		this.add(gridPanel, BorderLayout.CENTER);
+		this.add(grid, BorderLayout.CENTER);
 	}
 
 	/**
@@ -217,7 +231,7 @@ public class GOLView extends JFrame {
 		// sub-panel of the control panel
 		JPanel sliderPanel = new JPanel(new GridBagLayout());
 		sliderPanel.setBorder(BorderFactory
-				.createTitledBorder("Speed Control (ms)"));
+				.createTitledBorder("Speed Control (ms, 0 = max speed)"));
 
 		// slider with range 0 to 1000 with an initial position of 100
 		speedAdjust = new JSlider(0, 1000, 100);
@@ -266,6 +280,9 @@ public class GOLView extends JFrame {
 		populationLabel = new JLabel("Population: --");
 		infoPanel.add(populationLabel, BorderLayout.NORTH);
 
+		cycleLabel = new JLabel("Cycle: --");
+		infoPanel.add(cycleLabel, BorderLayout.CENTER);
+
 		generationLabel = new JLabel("Generation: --");
 		infoPanel.add(generationLabel, BorderLayout.SOUTH);
 
@@ -290,6 +307,9 @@ public class GOLView extends JFrame {
 		startStopToggle = new JButton("Start");
 		buttonPanel.add(startStopToggle);
 
+		stepButton = new JButton("Step");
+		buttonPanel.add(stepButton);
+
 		resetButton = new JButton("Reset");
 		buttonPanel.add(resetButton);
 
@@ -382,93 +402,139 @@ public class GOLView extends JFrame {
 	}
 
 	/**
-	 * Update the state of the cell panel at position (x, y)
+	 * Automatically formats and sets the cycle display value.
+	 * 
+	 * @param period
+	 *            Period of the cycle the world is in, or zero if none was
+	 *            found
+	 */
+	public void setCycleLabelValue(long period) {
+		cycleLabel.setText(period > 0 ? "Cycle: period " + period
+				: "Cycle: --");
+	}
+
+	/**
+	 * Check if the simulation should stop once the world starts cycling.
+	 * 
+	 * @return True if the "Stop When Cycling" setting is selected
+	 */
+	public boolean isStopOnCycleSelected() {
+		return stopOnCycleItem.isSelected();
+	}
+
+	/**
+	 * Update the state of the grid cell at position (x, y). The change is
+	 * displayed by the next call to {@link GOLView#repaintGrid()}.
 	 * 
 	 * @param x
-	 *            X position of the cell panel to change
+	 *            X position of the grid cell to change
 	 * @param y
-	 *            Y position of the cell panel to change
+	 *            Y position of the grid cell to change
 	 * @param state
-	 *            New state of the cell panel at (x, y)
+	 *            New state of the grid cell at (x, y)
 	 */
 	public void updateGridCell(int x, int y, int state) {
 		if ( state == CellWorld.ALIVE ) {
-			grid[x][y].setBackground(aliveCellColor);
+			grid.setCell(x, y, aliveCellColor.getRGB());
 		} else {
-			grid[x][y].setBackground(deadCellColor);
+			grid.setCell(x, y, deadCellColor.getRGB());
 		}
 	}
 
 	/**
-	 * Invert the state of the cell panel at position (x, y)
+	 * Repaint the grid display, showing every grid cell update made since the
+	 * last repaint.
+	 */
+	public void repaintGrid() {
+		grid.repaint();
+	}
+
+	/**
+	 * Repaint a rectangle of the grid display, showing the grid cell updates
+	 * made within it since the last repaint.
+	 * 
+	 * @param minX
+	 *            First row of the rectangle
+	 * @param minY
+	 *            First column of the rectangle
+	 * @param maxX
+	 *            Last row of the rectangle (inclusive)
+	 * @param maxY
+	 *            Last column of the rectangle (inclusive)
+	 */
+	public void repaintGridArea(int minX, int minY, int maxX, int maxY) {
+		grid.repaintCells(minX, minY, maxX, maxY);
+	}
+
+	/**
+	 * Invert the state of the grid cell at position (x, y) and repaint it
 	 * 
 	 * @param x
-	 *            X position of the cell panel to invert
+	 *            X position of the grid cell to invert
 	 * @param y
-	 *            Y position of the cell panel to invert
+	 *            Y position of the grid cell to invert
 	 */
 	public void invertGridCell(int x, int y) {
-		if ( grid[x][y].getBackground().equals(aliveCellColor) ) {
-			grid[x][y].setBackground(deadCellColor);
+		if ( grid.getCell(x, y) == (aliveCellColor.getRGB() & 0xFFFFFF) ) {
+			grid.setCell(x, y, deadCellColor.getRGB());
 		} else {
-			grid[x][y].setBackground(aliveCellColor);
+			grid.setCell(x, y, aliveCellColor.getRGB());
 		}
+		grid.repaintCell(x, y);
 	}
 
 	/**
-	 * Resize the cell panel display grid to a specified size. This also
-	 * destroys the current state of the cell panel display grid.
+	 * Get the row of the grid cell displayed at a point of the grid display.
+	 * 
+	 * @param py
+	 *            Y position within the grid display
+	 * @return Row of the grid cell, or -1 if the point is outside of the grid
+	 */
+	public int getGridRowAt(int py) {
+		return grid.getRowAt(py);
+	}
+
+	/**
+	 * Get the column of the grid cell displayed at a point of the grid
+	 * display.
+	 * 
+	 * @param px
+	 *            X position within the grid display
+	 * @return Column of the grid cell, or -1 if the point is outside of the
+	 *         grid
+	 */
+	public int getGridColumnAt(int px) {
+		return grid.getColumnAt(px);
+	}
+
+	/**
+	 * Resize the display grid to a specified size. This also destroys the
+	 * current state of the display grid.
 	 * 
 	 * @param newSize
-	 *            New size of the cell panel grid
+	 *            New size of the display grid
 	 * 
-	 * @postcondition Cell panel display grid has size of newSize
+	 * @postcondition Display grid has size of newSize
 	 */
 	public void resizeGrid(int newSize) {
-		// hide the grid panel until all changes are finished
-		gridPanel.setVisible(false);
-
 		gridSize = newSize;
-		grid = new CellPanel[gridSize][gridSize];
-		gridPanel.removeAll();
-
-		gridPanel.setLayout(new GridLayout(gridSize, gridSize));
-
-		// initialize all cell panels and add them to the grid
-		for (int x = 0; x < gridSize; x++) {
-			for (int y = 0; y < gridSize; y++) {
-				JPanel p2 = grid[x][y] = new CellPanel(x, y);
-				p2.setBorder(new LineBorder(cellBorderColor));
-				gridPanel.add(p2);
-			}
-		}
-
-		// show the grid panel now that all changes are complete
-		gridPanel.setVisible(true);
+		grid.resizeGrid(gridSize, deadCellColor);
 	}
 
 	/**
-	 * Clear the cell panel display so that all cells are displayed as dead.
+	 * Clear the display grid so that all cells are displayed as dead.
 	 * 
-	 * @precondition Cell panels in display grid are initialized
-	 * 
-	 * @postcondition All cell panels display dead cells
+	 * @postcondition All grid cells display dead cells
 	 */
 	private void clearGrid() {
-		for (int x = 0; x < gridSize; x++) {
-			for (int y = 0; y < gridSize; y++) {
-				grid[x][y].setBackground(deadCellColor);
-			}
-		}
+		grid.fill(deadCellColor);
 	}
 
 	/**
 	 * Clear the current state of the view to its initial state while preserving
 	 * the simulation speed setting and grid size.
 	 * 
-	 * @precondition Cell panels in display grid are initialized
-	 * 
-	 * @postcondition All cell panels display dead cells, start/stop toggle
+	 * @postcondition All grid cells display dead cells, start/stop toggle
 	 *                displays "Start", and population & generation labels show
 	 *                zero.
 	 */
@@ -577,6 +643,26 @@ public class GOLView extends JFrame {
 		return resizeDialogValue;
 	}
 
+	/**
+	 * Prompt a jump dialog expecting an integer for the generation to jump to.
+	 * 
+	 * @param generation
+	 *            Current generation, shown in the dialog
+	 */
+	public void showJumpDialog(long generation) {
+		jumpDialogValue = JOptionPane.showInputDialog(this,
+				"Jump to generation.. (currently " + generation + ")");
+	}
+
+	/**
+	 * Get the value of the jump dialog.
+	 * 
+	 * @return Most recent jump dialog result
+	 */
+	public String getJumpDialogValue() {
+		return jumpDialogValue;
+	}
+
 	// #########################################################################
 	// Listener Methods
 	// #########################################################################
@@ -611,6 +697,26 @@ public class GOLView extends JFrame {
 		resizeItem.addActionListener(listener);
 	}
 
+	/**
+	 * Add a listener to the jump menu item.
+	 * 
+	 * @param listener
+	 *            Listener to add to the jump menu item
+	 */
+	public void addJumpItemListener(ActionListener listener) {
+		jumpItem.addActionListener(listener);
+	}
+
+	/**
+	 * Add a listener to the stop when cycling menu item.
+	 * 
+	 * @param listener
+	 *            Listener to add to the stop when cycling menu item
+	 */
+	public void addStopOnCycleItemListener(ActionListener listener) {
+		stopOnCycleItem.addActionListener(listener);
+	}
+
 	/**
 	 * Add a listener to the simulation speed adjust slider.
 	 * 
@@ -641,6 +747,16 @@ public class GOLView extends JFrame {
 		startStopToggle.addActionListener(listener);
 	}
 
+	/**
+	 * Add a listener to the step button.
+	 * 
+	 * @param listener
+	 *            Listener to add to the step button
+	 */
+	public void addStepButtonListener(ActionListener listener) {
+		stepButton.addActionListener(listener);
+	}
+
 	/**
 	 * Add a listener to the reset button.
 	 * 
@@ -662,18 +778,15 @@ public class GOLView extends JFrame {
 	}
 
 	/**
-	 * Add listeners to the cell panel at position (x, y) on the grid. Listeners
-	 * include motion and button detection.
+	 * Add listeners to the grid display. Listeners include motion and button
+	 * detection; use {@link GOLView#getGridRowAt(int)} and
+	 * {@link GOLView#getGridColumnAt(int)} to find the cell under the cursor.
 	 * 
-	 * @param x
-	 *            X position of cell panel to add listeners to
-	 * @param y
-	 *            Y position of cell panel to add listeners to
 	 * @param listener
-	 *            Listener to add to cell panel at (x, y)
+	 *            Listener to add to the grid display
 	 */
-	public void addCellPanelListener(int x, int y, MouseInputAdapter listener) {
-		grid[x][y].addMouseListener(listener);
-		grid[x][y].addMouseMotionListener(listener);
+	public void addGridListener(MouseInputAdapter listener) {
+		grid.addMouseListener(listener);
+		grid.addMouseMotionListener(listener);
 	}
 }
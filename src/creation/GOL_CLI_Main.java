@@ -0,0 +1,471 @@
+package creation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+import util.BinaryWorldFormat;
+import util.GOLErrorHandler;
+import util.GOLFileHandler;
+
+
+
+// @formatter:off
+/**
+ * Driver class for running Conway's Game of Life without a GUI. Loads a world
+ * file, runs it for a number of generations (or until it stops changing) with
+ * the chosen engine, and saves the final state. Population metrics are
+ * streamed to stdout while it runs. Nothing here touches AWT or Swing, so it
+ * can be run on headless machines.
+ * 
+ * 
+ * ---------------------------------- Usage: -----------------------------------
+ * java creation.GOL_CLI_Main [option value]... world-file
+ * 
+ * World files may be in the .txt, the RLE, or the binary checkpoint format.
+ * The final state is saved in the RLE format when the output file name ends
+ * with .rle, as a checkpoint when it ends with .gol, and as a block-compressed
+ * checkpoint when it ends with .golz. A run from a checkpoint resumes from
+ * the checkpoint's generation, whatever the engine.
+ * 
+ * 		-g	Number of generations to run (default: until stable)
+ * 		-e	Engine: cellworld, hashlife, unbounded, offheap, mapped
+ * 			(default: cellworld)
+ * 		-r	Rule set, i.e. B36/S23 (default: the world file's, or B3/S23)
+ * 		-t	Number of threads used by the cellworld engine (default: 1)
+ * 		-k	Kernel of the cellworld engine: scalar, vector (default: scalar)
+ * 		-p	Longest period of the cycles detected by the cellworld engine
+ * 			(default: none)
+ * 		-i	Generations between metrics (default: 100)
+ * 		-f	Metrics format: csv, json (default: csv)
+ * 		-o	File to save the final state to (default: not saved)
+ * 
+ * Metrics are one line per interval, as CSV rows (generation, population,
+ * elapsed milliseconds) after a header, or as one JSON object per line. A
+ * summary of the run follows the metrics, as CSV comment lines starting with
+ * '#' or as a final JSON object.
+ * 
+ * When running until stable, the run ends after the first generation that
+ * leaves every cell unchanged. The hashlife and unbounded engines only
+ * compare the cells within their world window.
+ * 
+ * With cycle detection, a run until stable also ends once the world
+ * oscillates, one period after the first generation that repeats an earlier
+ * one(the repeat is confirmed cell for cell before it is trusted). A run of
+ * a number of generations skips the whole cycles left instead of ticking
+ * through them. The period found is part of the summary(0 if none).
+ * 
+ * The offheap engine holds the world in direct buffers outside of the Java
+ * heap, so worlds larger than the heap only need -XX:MaxDirectMemorySize to
+ * be raised. The mapped engine maps a plain checkpoint(.gol) in place
+ * instead of loading it: every tick updates the file itself, and the file's
+ * header is brought up to date when the run ends, so the world file always
+ * holds the final state and -o is only needed for a copy. The world file is
+ * NOT crash-safe: it is marked open while the run changes it, and a run that
+ * is killed(i.e. kill -9) or crashes leaves a file that cannot be loaded, its
+ * rows a mix of two generations. A run stopped by Ctrl-C or a plain kill
+ * finishes its current generation and saves the world file first. Keep a
+ * copy of any world file that must survive.
+ * 
+ * The vector kernel needs the JVM to run with
+ * --add-modules jdk.incubator.vector and the kernel compiled from src-vector
+ * (see VectorLifeKernel); otherwise the scalar kernel is used instead.
+ * 
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+// @formatter:on
+public class GOL_CLI_Main {
+
+	/**
+	 * Print an error and the usage, then exit.
+	 * 
+	 * @param message
+	 *            Description of the error
+	 */
+	private static void usageError(String message) {
+		System.err.println("Error: " + message);
+		System.err.println("Usage: java creation.GOL_CLI_Main [-g generations] "
+				+ "[-e cellworld|hashlife|unbounded|offheap|mapped] [-r rule] "
+				+ "[-t threads] [-k scalar|vector] [-p max-period] "
+				+ "[-i interval] [-f csv|json] [-o output-file] world-file");
+		System.err.println("The mapped engine rewrites world-file in place "
+				+ "and is not crash-safe: keep a copy of it.");
+		System.exit(GOLErrorHandler.ARGUMENT_ERROR);
+	}
+
+	/**
+	 * Tick a mapped world, unless the run is being stopped. Ticks and saves
+	 * hold the world's lock, so that a save never sees a tick part way.
+	 * 
+	 * @param saver
+	 *            Saver of the mapped world
+	 * @return False if the run is being stopped and the world was not ticked
+	 */
+	private static boolean tickMapped(MappedWorldSaver saver) {
+		synchronized (saver.world) {
+			if ( saver.stopping ) {
+				return false;
+			}
+			saver.world.tick();
+			return true;
+		}
+	}
+
+	/**
+	 * Parse a positive integer argument.
+	 * 
+	 * @param option
+	 *            Option the value belongs to
+	 * @param value
+	 *            Value to parse
+	 * @return Parsed value
+	 */
+	private static long parsePositive(String option, String value) {
+		try {
+			long parsed = Long.parseLong(value);
+			if ( parsed > 0 ) {
+				return parsed;
+			}
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+
+		usageError(option + " expects a positive integer: " + value);
+		return 0;
+	}
+
+	/**
+	 * Create the model of an engine, other than the mapped engine whose model
+	 * is the mapping of the world file.
+	 * 
+	 * @param engine
+	 *            Name of the engine
+	 * @param threads
+	 *            Number of threads used by the cellworld engine
+	 * @param vectorized
+	 *            True to use the vector kernel of the cellworld engine
+	 * @return Blank model of the engine
+	 */
+	private static GOLModel createModel(String engine, int threads,
+			boolean vectorized) {
+		if ( engine.equals("cellworld") ) {
+			CellWorld model = new CellWorld();
+			model.setParallelism(threads);
+			if ( vectorized && !model.setVectorized(true) ) {
+				System.err.println("Warning: Vector kernel not available, "
+						+ "using the scalar kernel.");
+			}
+			return model;
+		} else if ( engine.equals("hashlife") ) {
+			return new HashLifeWorld();
+		} else if ( engine.equals("unbounded") ) {
+			return new UnboundedCellWorld();
+		} else if ( engine.equals("offheap") ) {
+			return new OffHeapCellWorld();
+		}
+
+		usageError("Unknown engine: " + engine);
+		return null;
+	}
+
+	/**
+	 * Print one line of metrics.
+	 * 
+	 * @param out
+	 *            Stream to print to
+	 * @param json
+	 *            True for JSON, false for CSV
+	 * @param model
+	 *            Model to report on
+	 * @param elapsedNanos
+	 *            Time since the run started
+	 */
+	private static void printMetrics(PrintStream out, boolean json,
+			GOLModel model, long elapsedNanos) {
+		if ( json ) {
+			out.printf(Locale.ROOT,
+					"{\"generation\":%d,\"population\":%d,\"elapsed_ms\":%.3f}%n",
+					model.getTickCount(), model.getPopulationCount(),
+					elapsedNanos / 1e6);
+		} else {
+			out.printf(Locale.ROOT, "%d,%d,%.3f%n", model.getTickCount(),
+					model.getPopulationCount(), elapsedNanos / 1e6);
+		}
+	}
+
+	public static void main(String[] args) {
+		long generations = -1;
+		String engine = "cellworld";
+		String rule = null;
+		int threads = 1;
+		int maxPeriod = 0;
+		boolean vectorized = false;
+		long interval = 100;
+		boolean json = false;
+		String output = null;
+		String input = null;
+
+		for (int i = 0; i < args.length; i++) {
+			String option = args[i];
+			if ( !option.startsWith("-") ) {
+				if ( input != null ) {
+					usageError("More than one world file given.");
+				}
+				input = option;
+				continue;
+			}
+
+			if ( i + 1 >= args.length ) {
+				usageError("Missing value for option: " + option);
+			}
+			String value = args[++i];
+
+			if ( option.equals("-g") ) {
+				generations = parsePositive(option, value);
+			} else if ( option.equals("-e") ) {
+				engine = value.toLowerCase(Locale.ROOT);
+			} else if ( option.equals("-r") ) {
+				rule = value;
+			} else if ( option.equals("-t") ) {
+				threads = (int) Math.min(parsePositive(option, value),
+						Integer.MAX_VALUE);
+			} else if ( option.equals("-k") ) {
+				if ( !value.equals("scalar") && !value.equals("vector") ) {
+					usageError("Unknown kernel: " + value);
+				}
+				vectorized = value.equals("vector");
+			} else if ( option.equals("-p") ) {
+				maxPeriod = (int) Math.min(parsePositive(option, value),
+						Integer.MAX_VALUE - 1);
+			} else if ( option.equals("-i") ) {
+				interval = parsePositive(option, value);
+			} else if ( option.equals("-f") ) {
+				if ( !value.equals("csv") && !value.equals("json") ) {
+					usageError("Unknown metrics format: " + value);
+				}
+				json = value.equals("json");
+			} else if ( option.equals("-o") ) {
+				output = value;
+			} else {
+				usageError("Unknown option: " + option);
+			}
+		}
+		if ( input == null ) {
+			usageError("No world file given.");
+		}
+
+		if ( maxPeriod > 0 && !engine.equals("cellworld") ) {
+			usageError("-p is only supported by the cellworld engine.");
+		}
+
+		if ( vectorized && !engine.equals("cellworld") ) {
+			usageError("-k is only supported by the cellworld engine.");
+		}
+
+		if ( threads > 1 && !engine.equals("cellworld") ) {
+			usageError("-t is only supported by the cellworld engine.");
+		}
+
+		boolean mapped = engine.equals("mapped");
+		MappedWorldSaver saver = null;
+		GOLModel model = mapped ? null : createModel(engine, threads,
+				vectorized);
+		try {
+			if ( mapped ) {
+				model = BinaryWorldFormat.map(new File(input));
+				saver = new MappedWorldSaver((OffHeapCellWorld) model);
+				Runtime.getRuntime().addShutdownHook(saver);
+			} else {
+				GOLFileHandler.loadWorldFile(new File(input), model);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.err
+					.println("\nError: Cannot read file. Make sure formatting is correct.");
+			System.exit(GOLErrorHandler.FILE_READ_ERROR);
+		} catch (IllegalArgumentException e) {
+			// the file's rule set is unsupported, unless overridden below
+			if ( rule == null ) {
+				usageError(e.getMessage());
+			}
+		}
+
+		if ( rule != null ) {
+			try {
+				model.loadRuleSet(rule);
+			} catch (IllegalArgumentException e) {
+				usageError(e.getMessage());
+			}
+		}
+
+		PrintStream out = System.out;
+		if ( !json ) {
+			out.println("generation,population,elapsed_ms");
+		}
+
+		// checkpoints resume from their own generation
+		long first = model.getTickCount();
+		long last = generations < 0 ? -1 : first + generations;
+
+		CellWorld cycles = null;
+		if ( maxPeriod > 0 ) {
+			cycles = (CellWorld) model;
+			cycles.setCycleDetection(maxPeriod);
+		}
+
+		long start = System.nanoTime();
+		printMetrics(out, json, model, 0);
+
+		// without a change set, compare each generation with the one before,
+		// except off the heap where the tick itself tracks whether it changed
+		boolean offHeap = model instanceof OffHeapCellWorld;
+		WorldSnapshot previous = null;
+		boolean stable = false;
+		long period = 0;
+		while (!stable && !(last < 0 && period > 0)
+				&& (last < 0 || model.getTickCount() < last)) {
+			if ( generations < 0 && !offHeap && model.getChangeSet() == null ) {
+				previous = WorldSnapshot.capture(model, 0, null);
+			}
+
+			if ( saver == null ) {
+				model.tick();
+			} else if ( !tickMapped(saver) ) {
+				break;
+			}
+
+			if ( generations < 0 ) {
+				ChangeSet changes = model.getChangeSet();
+				if ( changes != null ) {
+					stable = changes.size() == 0;
+				} else if ( offHeap ) {
+					stable = ((OffHeapCellWorld) model).isStable();
+				} else {
+					stable = previous.hasSameCells(WorldSnapshot.capture(model,
+							0, null));
+				}
+			}
+
+			// the generations left hold whole cycles that need no ticking
+			boolean cycleFound = false;
+			if ( cycles != null && period == 0 && cycles.getCyclePeriod() > 0 ) {
+				period = cycles.getCyclePeriod();
+				cycleFound = true;
+				if ( last >= 0 ) {
+					cycles.skipCycles(last - model.getTickCount());
+				}
+			}
+
+			if ( stable || cycleFound || model.getTickCount() % interval == 0
+					|| model.getTickCount() == last ) {
+				printMetrics(out, json, model, System.nanoTime() - start);
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+
+		if ( mapped ) {
+			try {
+				saver.save();
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.err.println("\nError: Unable to save world.");
+				System.exit(GOLErrorHandler.FILE_WRITE_ERROR);
+			}
+		}
+
+		if ( output != null ) {
+			try {
+				GOLFileHandler.saveWorldFile(new File(output), model);
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.err.println("\nError: Unable to save world.");
+				System.exit(GOLErrorHandler.FILE_WRITE_ERROR);
+			}
+		}
+
+		double rate = elapsed > 0 ? (model.getTickCount() - first) * 1e9
+				/ elapsed : 0;
+		if ( json ) {
+			out.printf(Locale.ROOT, "{\"summary\":{\"engine\":\"%s\","
+					+ "\"rule\":\"%s\",\"generations\":%d,\"population\":%d,"
+					+ "\"stable\":%b,\"period\":%d,\"elapsed_ms\":%.3f,"
+					+ "\"generations_per_second\":%.1f}}%n", engine,
+					model.getRuleSet(), model.getTickCount(),
+					model.getPopulationCount(), stable, period, elapsed / 1e6,
+					rate);
+		} else {
+			out.printf(Locale.ROOT, "# engine: %s%n# rule: %s%n"
+					+ "# generations: %d%n# population: %d%n# stable: %b%n"
+					+ "# period: %d%n# elapsed_ms: %.3f%n"
+					+ "# generations_per_second: %.1f%n", engine,
+					model.getRuleSet(), model.getTickCount(),
+					model.getPopulationCount(), stable, period, elapsed / 1e6,
+					rate);
+		}
+		out.flush();
+	}
+
+	// #########################################################################
+	// Internal Classes
+	// #########################################################################
+
+	/**
+	 * Shutdown hook that saves a mapped world when the run is stopped early,
+	 * i.e. by Ctrl-C, once the generation in progress has finished. The world
+	 * is only saved once, whether by the hook or at the end of the run.
+	 */
+	private static final class MappedWorldSaver extends Thread {
+
+		/**
+		 * World mapped to the world file
+		 */
+		private final OffHeapCellWorld	world;
+		/**
+		 * True once the JVM is shutting down
+		 */
+		private volatile boolean		stopping;
+		/**
+		 * True once the world was saved, guarded by the world's lock
+		 */
+		private boolean					saved;
+
+		/**
+		 * Creates the saver of a mapped world.
+		 * 
+		 * @param world
+		 *            World mapped to the world file
+		 */
+		MappedWorldSaver(OffHeapCellWorld world) {
+			this.world = world;
+		}
+
+		/**
+		 * Save the world to its file, unless it already was.
+		 * 
+		 * @throws IOException
+		 *             Occurs when the file cannot be written to
+		 */
+		void save() throws IOException {
+			synchronized (world) {
+				if ( !saved ) {
+					BinaryWorldFormat.force(world);
+					saved = true;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			stopping = true;
+			try {
+				this.save();
+			} catch (IOException e) {
+				System.err.println("Error: Unable to save world: "
+						+ e.getMessage());
+			}
+		}
+	}
+}
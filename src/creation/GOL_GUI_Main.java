@@ -31,16 +31,18 @@ public class GOL_GUI_Main {
 
 		CellWorld model = null;
 		if ( args.length > 0 ) {
-			int[][] world = null;
+			model = new CellWorld();
 			try {
-				world = GOLFileHandler.parseWorldFile(new File(args[0]));
+				GOLFileHandler.loadWorldFile(new File(args[0]), model);
 			} catch (IOException e) {
 				e.printStackTrace();
 				System.err
 						.println("\nError: Cannot read file. Make sure formatting is correct.");
 				System.exit(GOLErrorHandler.FILE_READ_ERROR);
+			} catch (IllegalArgumentException e) {
+				System.err.println("\nError: " + e.getMessage());
+				System.exit(GOLErrorHandler.FILE_READ_ERROR);
 			}
-			model = new CellWorld(world);
 		} else {
 			model = new CellWorld();
 		}
@@ -0,0 +1,288 @@
+package creation;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+
+
+
+/**
+ * Single component displaying the whole world grid. Every cell is one pixel
+ * of an image that is scaled to fit the component when painted, so the cost
+ * of the display does not depend on the number of cells. Used by
+ * {@link GOLView}.
+ * 
+ * Cells are addressed by (x, y) where x is the row and y is the column of the
+ * cell, matching {@link GOLModel}.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+@SuppressWarnings("serial")
+public class GridCanvas extends JComponent {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Smallest on-screen cell size(in pixels) at which cell borders are drawn
+	 */
+	private static final int	MIN_BORDER_CELL_SIZE	= 4;
+
+	/**
+	 * Image holding one pixel per cell
+	 */
+	private BufferedImage		image;
+	/**
+	 * Pixel data of the image, the cell at (x, y) is pixels[x * gridSize + y]
+	 */
+	private int[]				pixels;
+	/**
+	 * Size of the world grid
+	 */
+	private int					gridSize;
+	/**
+	 * Color of the borders drawn between cells
+	 */
+	private Color				borderColor;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates a grid of size x size cells, all filled with color.
+	 * 
+	 * @param size
+	 *            Size of the grid
+	 * @param color
+	 *            Initial color of every cell
+	 * @param borderColor
+	 *            Color of the borders between cells
+	 */
+	public GridCanvas(int size, Color color, Color borderColor) {
+		this.borderColor = borderColor;
+		this.resizeGrid(size, color);
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Get the length of a side of the displayed grid in pixels. The grid is
+	 * the largest square that fits the component.
+	 * 
+	 * @return On-screen size of the grid
+	 */
+	private int getGridSide() {
+		return Math.min(this.getWidth(), this.getHeight());
+	}
+
+	/**
+	 * Get the on-screen position of the edge of a cell along one axis.
+	 * 
+	 * @param index
+	 *            Row or column of the cell (may be gridSize for the far edge
+	 *            of the last cell)
+	 * @param origin
+	 *            On-screen position of the grid's edge along the axis
+	 * @param side
+	 *            On-screen size of the grid
+	 * @return On-screen position of the cell's near edge
+	 */
+	private int toScreen(int index, int origin, int side) {
+		return origin + (int) ((long) index * side / gridSize);
+	}
+
+	/**
+	 * Get the cell along one axis that an on-screen position falls in.
+	 * 
+	 * @param pos
+	 *            On-screen position along the axis
+	 * @param origin
+	 *            On-screen position of the grid's edge along the axis
+	 * @return Row or column of the cell, or -1 if pos is outside of the grid
+	 */
+	private int toCell(int pos, int origin) {
+		int side = this.getGridSide();
+		if ( side <= 0 || pos < origin || pos >= origin + side ) {
+			return -1;
+		}
+		return (int) ((long) (pos - origin) * gridSize / side);
+	}
+
+	/**
+	 * @return On-screen x position of the grid's left edge
+	 */
+	private int getOriginX() {
+		return (this.getWidth() - this.getGridSide()) / 2;
+	}
+
+	/**
+	 * @return On-screen y position of the grid's top edge
+	 */
+	private int getOriginY() {
+		return (this.getHeight() - this.getGridSide()) / 2;
+	}
+
+	// #########################################################################
+	// Grid Methods
+	// #########################################################################
+
+	/**
+	 * Resize the grid, destroying its current contents.
+	 * 
+	 * @param size
+	 *            New size of the grid
+	 * @param color
+	 *            Color of every cell of the new grid
+	 * 
+	 * @postcondition Grid has a size of size and is repainted
+	 */
+	public void resizeGrid(int size, Color color) {
+		gridSize = size;
+		image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+		this.fill(color);
+	}
+
+	/**
+	 * Get the size of the grid
+	 * 
+	 * @return Grid size
+	 */
+	public int getGridSize() {
+		return gridSize;
+	}
+
+	/**
+	 * Set the color of the cell at (x, y). The change is not displayed until
+	 * the grid is repainted.
+	 * 
+	 * @param x
+	 *            Row of the cell
+	 * @param y
+	 *            Column of the cell
+	 * @param rgb
+	 *            New color of the cell as an RGB value
+	 */
+	public void setCell(int x, int y, int rgb) {
+		pixels[x * gridSize + y] = rgb;
+	}
+
+	/**
+	 * Get the color of the cell at (x, y)
+	 * 
+	 * @param x
+	 *            Row of the cell
+	 * @param y
+	 *            Column of the cell
+	 * @return Color of the cell as an RGB value
+	 */
+	public int getCell(int x, int y) {
+		return pixels[x * gridSize + y] & 0xFFFFFF;
+	}
+
+	/**
+	 * Set every cell of the grid to a color.
+	 * 
+	 * @param color
+	 *            New color of every cell
+	 * 
+	 * @postcondition Every cell has the given color and the grid is repainted
+	 */
+	public void fill(Color color) {
+		Arrays.fill(pixels, color.getRGB() & 0xFFFFFF);
+		this.repaint();
+	}
+
+	/**
+	 * Repaint only the on-screen area of the cell at (x, y)
+	 * 
+	 * @param x
+	 *            Row of the cell
+	 * @param y
+	 *            Column of the cell
+	 */
+	public void repaintCell(int x, int y) {
+		this.repaintCells(x, y, x, y);
+	}
+
+	/**
+	 * Repaint only the on-screen area of a rectangle of cells
+	 * 
+	 * @param minX
+	 *            First row of the rectangle
+	 * @param minY
+	 *            First column of the rectangle
+	 * @param maxX
+	 *            Last row of the rectangle (inclusive)
+	 * @param maxY
+	 *            Last column of the rectangle (inclusive)
+	 */
+	public void repaintCells(int minX, int minY, int maxX, int maxY) {
+		int side = this.getGridSide();
+		int left = this.toScreen(minY, this.getOriginX(), side);
+		int top = this.toScreen(minX, this.getOriginY(), side);
+		int right = this.toScreen(maxY + 1, this.getOriginX(), side);
+		int bottom = this.toScreen(maxX + 1, this.getOriginY(), side);
+
+		// include the borders drawn on either side of the cells
+		this.repaint(left - 1, top - 1, right - left + 2, bottom - top + 2);
+	}
+
+	/**
+	 * Get the row of the cell displayed at an on-screen position.
+	 * 
+	 * @param py
+	 *            Y position within the component
+	 * @return Row of the cell, or -1 if the position is outside of the grid
+	 */
+	public int getRowAt(int py) {
+		return this.toCell(py, this.getOriginY());
+	}
+
+	/**
+	 * Get the column of the cell displayed at an on-screen position.
+	 * 
+	 * @param px
+	 *            X position within the component
+	 * @return Column of the cell, or -1 if the position is outside of the grid
+	 */
+	public int getColumnAt(int px) {
+		return this.toCell(px, this.getOriginX());
+	}
+
+	/**
+	 * Paint the grid image scaled to the largest square that fits the
+	 * component, with borders between cells once they are large enough to
+	 * show them.
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+		int side = this.getGridSide();
+		int ox = this.getOriginX();
+		int oy = this.getOriginY();
+
+		g.drawImage(image, ox, oy, ox + side, oy + side, 0, 0, gridSize,
+				gridSize, null);
+
+		if ( side / gridSize >= MIN_BORDER_CELL_SIZE ) {
+			g.setColor(borderColor);
+			for (int i = 0; i <= gridSize; i++) {
+				int x = this.toScreen(i, ox, side);
+				int y = this.toScreen(i, oy, side);
+				g.drawLine(x, oy, x, oy + side);
+				g.drawLine(ox, y, ox + side, y);
+			}
+		}
+	}
+
+}
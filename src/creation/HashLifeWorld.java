@@ -0,0 +1,999 @@
+package creation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Hashlife implementation of the model. The world is stored as a quadtree of
+ * canonical nodes: every distinct square of cells is stored exactly once, and
+ * each node memoizes its own future. This lets repetitive patterns be
+ * advanced 2^k generations in a single recursive step instead of one
+ * generation at a time.
+ * 
+ * Unlike {@link CellWorld}, the Hashlife universe is unbounded: cells outside
+ * of the world size continue to evolve rather than dying against the edge of
+ * the world. The world size only determines the window of cells exposed
+ * through {@link HashLifeWorld#getCellState(int, int)}, while the population
+ * count covers the whole universe.
+ * 
+ * For more information on Hashlife:
+ * https://en.wikipedia.org/wiki/Hashlife
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public class HashLifeWorld implements GOLModel {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Default maximum number of canonical nodes kept in the node cache. The
+	 * cache never grows past this, even within a single step.
+	 */
+	public static final int		DEFAULT_MAX_NODES	= 1 << 21;
+
+	/**
+	 * Thrown by {@link HashLifeWorld#join} when the node cache is full, to
+	 * abandon the operation in progress. Preallocated, as it carries no state.
+	 */
+	private static final CacheFullException	CACHE_FULL			= new CacheFullException();
+
+	/**
+	 * Smallest level of the root node. A level three root covers an 8x8
+	 * square.
+	 */
+	private static final int	MIN_ROOT_LEVEL		= 3;
+
+	/**
+	 * Leaf node of a dead cell
+	 */
+	private static final Node	DEAD_LEAF			= new Node(0);
+	/**
+	 * Leaf node of an alive cell
+	 */
+	private static final Node	ALIVE_LEAF			= new Node(1);
+
+	/**
+	 * Canonical node cache. Every interior node is looked up here before being
+	 * created so that equal squares share a single node.
+	 */
+	private HashMap<Node, Node>	nodeCache;
+	/**
+	 * Maximum number of nodes in the node cache. Fixed for the life of the
+	 * world: an operation that would grow the cache past it is abandoned and
+	 * retried after a collection.
+	 */
+	private int					maxNodes;
+	/**
+	 * Canonical empty node of each level, built lazily
+	 */
+	private Node[]				emptyNodes;
+
+	/**
+	 * Ticks since initial start of simulation. A tick is synonymous with a
+	 * generation.
+	 */
+	private long				tickCount;
+	/**
+	 * Tick count of the initial world state
+	 */
+	private long				initialTickCount;
+
+	/**
+	 * Size of the world window
+	 */
+	private int					size;
+	/**
+	 * The initial state of the universe before the simulation starts.
+	 */
+	private Node				initialRoot;
+	/**
+	 * The current state of the universe as the simulation progresses. The
+	 * root of level L covers the cells [-2^(L-1), 2^(L-1)) in both
+	 * directions, so the origin stays fixed as the root grows and shrinks.
+	 */
+	private Node				root;
+
+	/**
+	 * Rule set of the simulation. Defaults to B3/S23.
+	 */
+	private RuleSet				ruleSet;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates new blank world with a size of ten. Uses default rule set of
+	 * B3/S23.
+	 */
+	public HashLifeWorld() {
+		this(10, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Creates new blank world with a size of sz. Uses default rule set of
+	 * B3/S23.
+	 * 
+	 * @precondition maxNodes is at least 64, as the empty node of every level
+	 *               is always kept
+	 * 
+	 * @param sz
+	 *            Size of the world
+	 * @param maxNodes
+	 *            Maximum number of nodes kept in the node cache
+	 */
+	public HashLifeWorld(int sz, int maxNodes) {
+		if ( maxNodes < 64 ) {
+			throw new IllegalArgumentException("Invalid node cache size: "
+					+ "expected at least 64 nodes.");
+		}
+
+		this.maxNodes = maxNodes;
+		nodeCache = new HashMap<Node, Node>();
+		emptyNodes = new Node[64];
+		emptyNodes[0] = DEAD_LEAF;
+
+		ruleSet = RuleSet.CONWAY;
+
+		size = sz;
+		this.clear();
+	}
+
+	/**
+	 * Creates a world based on a pre-configured setup. Uses default rule set of
+	 * B3/S23.
+	 * 
+	 * @precondition worldConfig is initialized
+	 * 
+	 * @param worldConfig
+	 *            Pre-configured world setup
+	 */
+	public HashLifeWorld(int[][] worldConfig) {
+		this(worldConfig.length, DEFAULT_MAX_NODES);
+		this.loadWorld(worldConfig);
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Get the canonical node with the given quadrants, creating it if needed.
+	 * 
+	 * @precondition All quadrants are canonical nodes of the same level
+	 * 
+	 * @return Canonical node made of the given quadrants
+	 * @throws CacheFullException
+	 *             If the node is not cached and the node cache is full
+	 */
+	private Node join(Node nw, Node ne, Node sw, Node se) {
+		Node node = new Node(nw, ne, sw, se);
+		Node canonical = nodeCache.get(node);
+		if ( canonical != null ) {
+			return canonical;
+		}
+
+		if ( nodeCache.size() >= maxNodes ) {
+			throw CACHE_FULL;
+		}
+		nodeCache.put(node, node);
+		return node;
+	}
+
+	/**
+	 * Get the canonical empty node of a level.
+	 * 
+	 * @param level
+	 *            Level of the node
+	 * @return Node of all dead cells covering 2^level cells per side
+	 */
+	private Node empty(int level) {
+		if ( emptyNodes[level] == null ) {
+			Node e = this.empty(level - 1);
+			emptyNodes[level] = this.join(e, e, e, e);
+		}
+		return emptyNodes[level];
+	}
+
+	/**
+	 * Garbage collect the node cache. Nodes reachable from the current and
+	 * initial roots are kept, along with the memoized results of kept nodes
+	 * while the cache stays under budget; every other result is dropped so
+	 * that dropped nodes are no longer referenced.
+	 * 
+	 * Only called when no operation is in progress, including one abandoned
+	 * by a full cache, so that nothing holds nodes that are no longer
+	 * canonical.
+	 * 
+	 * @postcondition The node cache only holds nodes reachable from a root
+	 *                or from a kept result.
+	 * 
+	 * @param budget
+	 *            Cache size past which no more results are kept, or zero to
+	 *            drop every result
+	 */
+	private void collect(int budget) {
+		nodeCache = new HashMap<Node, Node>();
+
+		for (int i = 1; i < emptyNodes.length; i++) {
+			this.retain(emptyNodes[i]);
+		}
+		this.retain(initialRoot);
+		this.retain(root);
+
+		// the futures of the roots' own nodes are the most likely to be
+		// needed again by the next step
+		for (Node node : new ArrayList<Node>(nodeCache.values())) {
+			if ( node.result != null && nodeCache.size() < budget ) {
+				this.retain(node.result);
+			}
+		}
+
+		for (Node node : nodeCache.values()) {
+			if ( node.result != null
+					&& nodeCache.get(node.result) != node.result ) {
+				node.result = null;
+			}
+		}
+	}
+
+	/**
+	 * Re-insert a node and every node beneath it into the node cache.
+	 * 
+	 * @param node
+	 *            Node to retain (may be null)
+	 */
+	private void retain(Node node) {
+		if ( node == null || node.level == 0 || nodeCache.containsKey(node) ) {
+			return;
+		}
+
+		this.retain(node.nw);
+		this.retain(node.ne);
+		this.retain(node.sw);
+		this.retain(node.se);
+		nodeCache.put(node, node);
+	}
+
+	/**
+	 * Build the quadtree of a region of a cell state array.
+	 * 
+	 * @param arr
+	 *            Cell state array
+	 * @param x
+	 *            Row of the top-left cell of the region
+	 * @param y
+	 *            Column of the top-left cell of the region
+	 * @param level
+	 *            Level of the node to build
+	 * @return Canonical node of the region
+	 */
+	private Node build(int[][] arr, long x, long y, int level) {
+		long side = 1L << level;
+		if ( x >= arr.length || y >= arr.length || x + side <= 0
+				|| y + side <= 0 ) {
+			return this.empty(level);
+		}
+		if ( level == 0 ) {
+			return arr[(int) x][(int) y] == CellWorld.ALIVE ? ALIVE_LEAF
+					: DEAD_LEAF;
+		}
+
+		long half = side / 2;
+		return this.join(this.build(arr, x, y, level - 1),
+				this.build(arr, x, y + half, level - 1),
+				this.build(arr, x + half, y, level - 1),
+				this.build(arr, x + half, y + half, level - 1));
+	}
+
+	/**
+	 * Grow a node by one level, keeping its contents centered.
+	 * 
+	 * @param node
+	 *            Node to expand
+	 * @return Node of the next level with node at its center
+	 */
+	private Node expand(Node node) {
+		Node e = this.empty(node.level - 1);
+		return this.join(this.join(e, e, e, node.nw),
+				this.join(e, e, node.ne, e), this.join(e, node.sw, e, e),
+				this.join(node.se, e, e, e));
+	}
+
+	/**
+	 * Check if every living cell of a node lies within its center quarter
+	 * (the center of its center).
+	 * 
+	 * @param node
+	 *            Node to check, of level two or more
+	 * @return True if no living cells lie outside the center quarter
+	 */
+	private boolean isPadded(Node node) {
+		return node.population == node.nw.se.se.population
+				+ node.ne.sw.sw.population + node.sw.ne.ne.population
+				+ node.se.nw.nw.population;
+	}
+
+	/**
+	 * Check whether the root covers the cell at (x, y).
+	 * 
+	 * @return True if (x, y) lies within the root
+	 */
+	private boolean rootContains(long x, long y) {
+		long half = 1L << (root.level - 1);
+		return x >= -half && x < half && y >= -half && y < half;
+	}
+
+	/**
+	 * Get the state of a cell within a node.
+	 * 
+	 * @param node
+	 *            Node containing the cell
+	 * @param x
+	 *            Row of the cell relative to the node's top-left cell
+	 * @param y
+	 *            Column of the cell relative to the node's top-left cell
+	 * @return State of the cell
+	 */
+	private int getCell(Node node, long x, long y) {
+		while (node.level > 0) {
+			if ( node.population == 0 ) {
+				return CellWorld.DEAD;
+			}
+
+			long half = 1L << (node.level - 1);
+			if ( x < half ) {
+				node = y < half ? node.nw : node.ne;
+			} else {
+				node = y < half ? node.sw : node.se;
+				x -= half;
+			}
+			if ( y >= half ) {
+				y -= half;
+			}
+		}
+
+		return (int) node.population;
+	}
+
+	/**
+	 * Get a copy of a node with a single cell changed.
+	 * 
+	 * @param node
+	 *            Node containing the cell
+	 * @param x
+	 *            Row of the cell relative to the node's top-left cell
+	 * @param y
+	 *            Column of the cell relative to the node's top-left cell
+	 * @param state
+	 *            New state of the cell
+	 * @return Canonical node with the cell set to state
+	 */
+	private Node setCell(Node node, long x, long y, int state) {
+		if ( node.level == 0 ) {
+			return state == CellWorld.ALIVE ? ALIVE_LEAF : DEAD_LEAF;
+		}
+
+		long half = 1L << (node.level - 1);
+		if ( x < half ) {
+			if ( y < half ) {
+				return this.join(this.setCell(node.nw, x, y, state), node.ne,
+						node.sw, node.se);
+			}
+			return this.join(node.nw,
+					this.setCell(node.ne, x, y - half, state), node.sw,
+					node.se);
+		}
+		if ( y < half ) {
+			return this.join(node.nw, node.ne,
+					this.setCell(node.sw, x - half, y, state), node.se);
+		}
+		return this.join(node.nw, node.ne, node.sw,
+				this.setCell(node.se, x - half, y - half, state));
+	}
+
+	/**
+	 * Set the state of a cell of the universe, growing the root to cover it.
+	 * 
+	 * @param x
+	 *            X position of cell to set
+	 * @param y
+	 *            Y position of cell to set
+	 * @param state
+	 *            The state to set the cell to
+	 */
+	private void setRootCell(long x, long y, int state) {
+		while (!this.rootContains(x, y)) {
+			root = this.expand(root);
+		}
+
+		long half = 1L << (root.level - 1);
+		root = this.setCell(root, x + half, y + half, state);
+	}
+
+	/**
+	 * Advance the center 2x2 cells of a level two node by one generation.
+	 * 
+	 * @param node
+	 *            Level two node (4x4 cells)
+	 * @return Level one node of the center cells one generation later
+	 */
+	private Node evolveBase(Node node) {
+		// pack the 4x4 square as bit (4 * row + column)
+		int bits = 0;
+		for (int x = 0; x < 4; x++) {
+			for (int y = 0; y < 4; y++) {
+				bits |= this.getCell(node, x, y) << (4 * x + y);
+			}
+		}
+
+		Node[] center = new Node[4];
+		for (int i = 0; i < 4; i++) {
+			int x = 1 + i / 2;
+			int y = 1 + i % 2;
+
+			int neighbors = 0;
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					if ( dx != 0 || dy != 0 ) {
+						neighbors += (bits >>> (4 * (x + dx) + y + dy)) & 1;
+					}
+				}
+			}
+
+			int alive = (bits >>> (4 * x + y)) & 1;
+			int next = ruleSet.nextState(alive, neighbors);
+			center[i] = next == CellWorld.ALIVE ? ALIVE_LEAF : DEAD_LEAF;
+		}
+
+		return this.join(center[0], center[1], center[2], center[3]);
+	}
+
+	/**
+	 * Get the center of a node advanced 2^step generations. The result is
+	 * memoized on the node.
+	 * 
+	 * @precondition node is of level two or more
+	 * 
+	 * @param node
+	 *            Node to advance
+	 * @param step
+	 *            Log2 of the number of generations to advance; clamped to the
+	 *            largest step the node supports (its level minus two)
+	 * @return Node one level lower covering the center of node
+	 */
+	private Node successor(Node node, int step) {
+		step = Math.min(step, node.level - 2);
+		if ( node.result != null && node.resultStep == step ) {
+			return node.result;
+		}
+
+		Node result;
+		if ( node.population == 0 ) {
+			result = node.nw;
+		} else if ( node.level == 2 ) {
+			result = this.evolveBase(node);
+		} else {
+			// nine overlapping sub-squares, each advanced and trimmed to its
+			// center
+			Node c1 = this.successor(node.nw, step);
+			Node c2 = this.successor(
+					this.join(node.nw.ne, node.ne.nw, node.nw.se, node.ne.sw),
+					step);
+			Node c3 = this.successor(node.ne, step);
+			Node c4 = this.successor(
+					this.join(node.nw.sw, node.nw.se, node.sw.nw, node.sw.ne),
+					step);
+			Node c5 = this.successor(
+					this.join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw),
+					step);
+			Node c6 = this.successor(
+					this.join(node.ne.sw, node.ne.se, node.se.nw, node.se.ne),
+					step);
+			Node c7 = this.successor(node.sw, step);
+			Node c8 = this.successor(
+					this.join(node.sw.ne, node.se.nw, node.sw.se, node.se.sw),
+					step);
+			Node c9 = this.successor(node.se, step);
+
+			if ( step < node.level - 2 ) {
+				// the sub-squares have already been advanced far enough, so
+				// only stitch their centers back together
+				result = this.join(
+						this.join(c1.se, c2.sw, c4.ne, c5.nw),
+						this.join(c2.se, c3.sw, c5.ne, c6.nw),
+						this.join(c4.se, c5.sw, c7.ne, c8.nw),
+						this.join(c5.se, c6.sw, c8.ne, c9.nw));
+			} else {
+				// advance the four overlapping quadrants a second time
+				result = this.join(
+						this.successor(this.join(c1, c2, c4, c5), step),
+						this.successor(this.join(c2, c3, c5, c6), step),
+						this.successor(this.join(c4, c5, c7, c8), step),
+						this.successor(this.join(c5, c6, c8, c9), step));
+			}
+		}
+
+		node.result = result;
+		node.resultStep = step;
+		return result;
+	}
+
+	/**
+	 * Advance the universe by 2^step generations in a single recursive step.
+	 * 
+	 * A step that fills the node cache is abandoned and retried once every
+	 * memoized result has been dropped, then split into two half-sized steps.
+	 * Only a single generation that cannot fit in the cache alongside the
+	 * live world fails.
+	 * 
+	 * @postcondition The tick count matches the generation of the root, even
+	 *                if the step fails part way through.
+	 * 
+	 * @param step
+	 *            Log2 of the number of generations to advance
+	 * @throws IllegalStateException
+	 *             If a single generation does not fit in the node cache
+	 */
+	private void step(int step) {
+		if ( nodeCache.size() >= maxNodes - maxNodes / 4 ) {
+			this.collect(maxNodes / 2);
+		}
+
+		for (int attempt = 0; attempt < 2; attempt++) {
+			try {
+				// the pattern must sit within the center quarter of a large
+				// enough root so that it cannot grow past the center half
+				// being returned
+				while (root.level < step + 3 || !this.isPadded(root)) {
+					root = this.expand(root);
+				}
+				root = this.successor(root, step);
+				tickCount += 1L << step;
+				return;
+			} catch (CacheFullException e) {
+				// the abandoned step only held its nodes on the stack, so the
+				// roots are a complete root set again
+				this.collect(0);
+			}
+		}
+
+		if ( step == 0 ) {
+			throw new IllegalStateException("Node cache full: a generation "
+					+ "of this world needs more than " + maxNodes + " nodes.");
+		}
+		this.step(step - 1);
+		this.step(step - 1);
+	}
+
+	// #########################################################################
+	// Model Methods
+	// #########################################################################
+
+	/**
+	 * Load a pre-configured world setup.
+	 * 
+	 * @precondition newWorld is initialized
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 */
+	@Override
+	public void loadWorld(int[][] newWorld) {
+		this.loadWorld(newWorld, 0);
+	}
+
+	/**
+	 * Load a pre-configured world setup reached after a number of
+	 * generations.
+	 * 
+	 * @precondition newWorld is initialized and generation is not negative
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 * @param generation
+	 *            Generation of the world setup
+	 * @throws IllegalStateException
+	 *             If the world setup does not fit in the node cache, leaving
+	 *             the world cleared
+	 */
+	@Override
+	public void loadWorld(int[][] newWorld, long generation) {
+		size = newWorld.length;
+
+		int level = MIN_ROOT_LEVEL;
+		while ((1L << (level - 1)) < size) {
+			level++;
+		}
+		long half = 1L << (level - 1);
+
+		// the array starts at the origin, in the south-east quadrant of root
+		try {
+			root = initialRoot = this.build(newWorld, -half, -half, level);
+		} catch (CacheFullException e) {
+			// the old world is being replaced, so it need not be kept
+			this.clear();
+			this.collect(0);
+			try {
+				root = initialRoot = this.build(newWorld, -half, -half, level);
+			} catch (CacheFullException again) {
+				throw new IllegalStateException("Node cache full: the world "
+						+ "needs more than " + maxNodes + " nodes.");
+			}
+		}
+		tickCount = initialTickCount = generation;
+	}
+
+	/**
+	 * Load a pre-configured rule set. Every memoized result was computed under
+	 * the old rule set, so all of them are dropped.
+	 * 
+	 * @precondition ruleSet follows the rule set format specification
+	 * 
+	 * @param ruleSet
+	 *            Pre-configured rule set, see {@link RuleSet#parse(String)}
+	 * @throws IllegalArgumentException
+	 *             Occurs when the rule set is malformed, or when it contains
+	 *             B0 which would bring the infinite empty space to life
+	 */
+	@Override
+	public void loadRuleSet(String ruleSet) {
+		RuleSet parsed = RuleSet.parse(ruleSet);
+		if ( parsed.bornFromNothing() ) {
+			throw new IllegalArgumentException("Rule set " + parsed
+					+ " is not supported by an unbounded world.");
+		}
+
+		this.ruleSet = parsed;
+		for (Node node : nodeCache.values()) {
+			node.result = null;
+		}
+	}
+
+	/**
+	 * Get the rule set of the simulation.
+	 * 
+	 * @return Current rule set
+	 */
+	@Override
+	public RuleSet getRuleSet() {
+		return ruleSet;
+	}
+
+	/**
+	 * Get the world size
+	 * 
+	 * @return World size
+	 */
+	@Override
+	public int getWorldSize() {
+		return size;
+	}
+
+	/**
+	 * Get the population(alive cell) count of the whole universe, including
+	 * cells that have grown outside of the world size.
+	 * 
+	 * @return Number of alive cells
+	 */
+	@Override
+	public long getPopulationCount() {
+		return root.population;
+	}
+
+	/**
+	 * Get the state of the cell at (x, y)
+	 * 
+	 * @param x
+	 *            X position of cell to check
+	 * @param y
+	 *            Y position of cell to check
+	 * @return The state of the cell at position (x, y)
+	 */
+	@Override
+	public int getCellState(int x, int y) {
+		if ( !this.rootContains(x, y) ) {
+			return CellWorld.DEAD;
+		}
+
+		long half = 1L << (root.level - 1);
+		return this.getCell(root, x + half, y + half);
+	}
+
+	/**
+	 * Set the state of the cell at (x, y)
+	 * 
+	 * @precondition state is either 0 or 1.
+	 * 
+	 * @param x
+	 *            X position of cell to set
+	 * @param y
+	 *            Y position of cell to set
+	 * @param state
+	 *            The state to set the cell to
+	 */
+	@Override
+	public void setCellState(int x, int y, int state) {
+		if ( state != 0 && state != 1 ) {
+			throw new IllegalStateException("Invalid cell state: "
+					+ "expected '0' or '1'.");
+		}
+
+		try {
+			this.setRootCell(x, y, state);
+		} catch (CacheFullException e) {
+			this.collect(0);
+			try {
+				this.setRootCell(x, y, state);
+			} catch (CacheFullException again) {
+				throw new IllegalStateException("Node cache full: the world "
+						+ "needs more than " + maxNodes + " nodes.");
+			}
+		}
+	}
+
+	/**
+	 * Invert the state of the cell (i.e. 0 -> 1, 1 -> 0)
+	 * 
+	 * @param x
+	 *            X position of cell to check
+	 * @param y
+	 *            Y position of cell to check
+	 */
+	@Override
+	public void invertCellState(int x, int y) {
+		this.setCellState(x, y, 1 - this.getCellState(x, y));
+	}
+
+	/**
+	 * Process the next tick/generation of the world.
+	 */
+	@Override
+	public void tick() {
+		this.advance(1);
+	}
+
+	/**
+	 * Advance the world by n generations. Each set bit k of n is processed as
+	 * a single jump of 2^k generations, and interrupts are checked between
+	 * jumps.
+	 * 
+	 * @precondition n is not negative
+	 * 
+	 * @param n
+	 *            Number of generations to advance
+	 * @return Number of generations advanced
+	 */
+	@Override
+	public long advance(long n) {
+		long start = tickCount;
+		for (int step = 0; (n >>> step) != 0; step++) {
+			if ( ((n >>> step) & 1) == 1 ) {
+				if ( Thread.currentThread().isInterrupted() ) {
+					break;
+				}
+				this.step(step);
+			}
+		}
+		return tickCount - start;
+	}
+
+	/**
+	 * Changes are not tracked by the quadtree, so the whole world must always be
+	 * redrawn.
+	 * 
+	 * @return Always null
+	 */
+	@Override
+	public ChangeSet getChangeSet() {
+		return null;
+	}
+
+	/**
+	 * Reset the state of the world to its initial state.
+	 * 
+	 * @postcondition The universe holds the zeroth generation
+	 */
+	@Override
+	public void reset() {
+		root = initialRoot;
+		tickCount = initialTickCount;
+	}
+
+	/**
+	 * Completely clear the world, making all cells dead.
+	 * 
+	 * @postcondition The universe is cleared of all living cells, and the tick
+	 *                and population counts are set to zero.
+	 */
+	@Override
+	public void clear() {
+		root = initialRoot = this.empty(MIN_ROOT_LEVEL);
+		tickCount = initialTickCount = 0;
+	}
+
+	/**
+	 * Resize the world window to newSize and clear it.
+	 * 
+	 * @precondition newSize is greater than zero
+	 * 
+	 * @param newSize
+	 *            New size of the world
+	 */
+	@Override
+	public void resize(int newSize) {
+		size = newSize;
+		this.clear();
+	}
+
+	/**
+	 * Sets the initial state of the world to the current state of the world.
+	 */
+	@Override
+	public void syncInitialState() {
+		initialRoot = root;
+	}
+
+	/**
+	 * Get the number of ticks since start
+	 * 
+	 * @return Number of ticks since start
+	 */
+	@Override
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Get the maximum number of nodes kept in the node cache.
+	 * 
+	 * @return Cap of the node cache
+	 */
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+
+	/**
+	 * Get the number of canonical nodes currently cached.
+	 * 
+	 * @return Size of the node cache
+	 */
+	public int getNodeCount() {
+		return nodeCache.size();
+	}
+
+	/**
+	 * Gets the world window as a formatted string. This string is compliant
+	 * with the file format specification.
+	 * 
+	 * @return Formatted string representation of the world
+	 */
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				out.append(this.getCellState(x, y) + " ");
+				if ( y != size - 1 ) {
+					out.append(" ");
+				}
+			}
+
+			if ( x != size - 1 ) {
+				out.append("\n");
+			}
+		}
+
+		return out.toString();
+	}
+
+	// #########################################################################
+	// Internal Classes
+	// #########################################################################
+
+	/**
+	 * Quadtree node covering a square of 2^level cells per side. Nodes are
+	 * immutable apart from their memoized result, and two nodes are equal
+	 * when they have the very same (canonical) quadrants.
+	 */
+	static final class Node {
+
+		/**
+		 * Quadrants of the node (null for leaves)
+		 */
+		final Node	nw, ne, sw, se;
+		/**
+		 * Level of the node
+		 */
+		final int	level;
+		/**
+		 * Number of living cells in the node
+		 */
+		final long	population;
+		/**
+		 * Hash of the quadrants' identities
+		 */
+		final int	hash;
+
+		/**
+		 * Memoized center of this node advanced 2^resultStep generations
+		 */
+		Node		result;
+		/**
+		 * Log2 of the number of generations result was advanced
+		 */
+		int			resultStep;
+
+		/**
+		 * Creates a leaf node.
+		 * 
+		 * @param state
+		 *            State of the leaf's cell
+		 */
+		Node(int state) {
+			nw = ne = sw = se = null;
+			level = 0;
+			population = state;
+			hash = state;
+		}
+
+		/**
+		 * Creates an interior node. Use {@link HashLifeWorld#join} to get the
+		 * canonical instance.
+		 */
+		Node(Node nw, Node ne, Node sw, Node se) {
+			this.nw = nw;
+			this.ne = ne;
+			this.sw = sw;
+			this.se = se;
+			level = nw.level + 1;
+			population = nw.population + ne.population + sw.population
+					+ se.population;
+
+			int h = System.identityHashCode(nw);
+			h = 31 * h + System.identityHashCode(ne);
+			h = 31 * h + System.identityHashCode(sw);
+			hash = 31 * h + System.identityHashCode(se);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( !(obj instanceof Node) ) {
+				return false;
+			}
+
+			Node other = (Node) obj;
+			return nw == other.nw && ne == other.ne && sw == other.sw
+					&& se == other.se;
+		}
+
+	}
+
+	/**
+	 * Signals that the node cache is full. Caught by the operation that
+	 * started the recursion, which collects the cache and retries.
+	 */
+	private static final class CacheFullException extends RuntimeException {
+
+		private static final long	serialVersionUID	= 1L;
+
+		/**
+		 * Creates the exception without a stack trace, as it is only used for
+		 * control flow.
+		 */
+		CacheFullException() {
+			super(null, null, false, false);
+		}
+
+	}
+
+}
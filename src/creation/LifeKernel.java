@@ -0,0 +1,498 @@
+package creation;
+
+/**
+ * Bit-parallel evolution kernel shared by the world models. Cells are packed
+ * 64 to a long (bit y of word w holds column 64 * w + y), and each call
+ * evolves a whole word at once: the eight neighbor words are summed with
+ * bitwise full adders into four count bit-planes, and the rule is applied to
+ * those planes instead of to individual cells.
+ * 
+ * Rows are laid out back to back in a single array, so the rows above and
+ * below a row starting at index r start at r - words and r + words, where
+ * words is the number of words per row. The first and last rows of a world
+ * are given halo rows before and after them, holding whatever lies beyond the
+ * world's edge.
+ * 
+ * A rule is encoded as a single long: bit n (0-8) is set if a dead cell with n
+ * living neighbors is born, and bit 9 + n is set if a living cell with n
+ * living neighbors survives. See {@link RuleSet#encode()}.
+ * 
+ * Full rows can also be evolved by a {@link RowEvolver}: {@link #SCALAR} runs
+ * {@link LifeKernel#evolveRow} one word at a time, and the optional vector
+ * kernel (see {@link LifeKernel#vectorKernel()}) evolves several words per
+ * instruction with the JDK's incubating Vector API.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+final class LifeKernel {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Number of cells held by a single word
+	 */
+	static final int	WORD_BITS		= 64;
+
+	/**
+	 * Offset of the survive bits within an encoded rule
+	 */
+	static final int	SURVIVE_SHIFT	= 9;
+
+	/**
+	 * Name of the vector kernel class. It is compiled separately(from
+	 * src-vector) against the jdk.incubator.vector module, and only loaded if
+	 * present and if the module was added at runtime.
+	 */
+	static final String	VECTOR_KERNEL	= "creation.VectorLifeKernel";
+
+	/**
+	 * Row evolver running {@link LifeKernel#evolveRow} one word at a time
+	 */
+	static final RowEvolver	SCALAR	= new RowEvolver() {
+		@Override
+		public long evolveRow(long[] cells, int row, int words, long[] out,
+				int outRow, int width, long rule, boolean wrap) {
+			return LifeKernel.evolveRow(cells, row, words, out, outRow, width,
+					rule, wrap);
+		}
+	};
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Static utility class, never instantiated.
+	 */
+	private LifeKernel() {
+	}
+
+	// #########################################################################
+	// Kernel Methods
+	// #########################################################################
+
+	/**
+	 * Get the vector kernel, loading it on first use.
+	 * 
+	 * @return Row evolver built on the Vector API, or null if it is not
+	 *         available(not compiled, module not added, or no SIMD support)
+	 */
+	static RowEvolver vectorKernel() {
+		return VectorKernelHolder.KERNEL;
+	}
+
+	/**
+	 * Load the vector kernel by name, so that this class never links against
+	 * the Vector API itself.
+	 * 
+	 * @return Vector kernel, or null if it cannot be loaded
+	 */
+	private static RowEvolver loadVectorKernel() {
+		try {
+			return (RowEvolver) Class.forName(VECTOR_KERNEL)
+					.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			// not compiled, or the hardware has no vectors worth using
+			return null;
+		} catch (LinkageError e) {
+			// compiled, but jdk.incubator.vector was not added at runtime
+			return null;
+		}
+	}
+
+	/**
+	 * Get the number of words needed to hold a row of size cells.
+	 * 
+	 * @param size
+	 *            Number of cells in a row
+	 * @return Number of words per row
+	 */
+	static int wordsPerRow(int size) {
+		return (size + WORD_BITS - 1) / WORD_BITS;
+	}
+
+	/**
+	 * Get the mask of valid cells in the last word of a row of size cells.
+	 * Bits outside of this mask must always be zero.
+	 * 
+	 * @param size
+	 *            Number of cells in a row
+	 * @return Mask of valid bits in the last word of a row
+	 */
+	static long lastWordMask(int size) {
+		int rem = size % WORD_BITS;
+		return rem == 0 ? -1L : (1L << rem) - 1;
+	}
+
+	/**
+	 * Align the western neighbors of a word's cells with the word.
+	 * 
+	 * @param prev
+	 *            Word to the west of word (or zero at the edge)
+	 * @param word
+	 *            Word being evolved
+	 * @return Word where bit y holds the cell west of bit y in word
+	 */
+	static long west(long prev, long word) {
+		return (word << 1) | (prev >>> 63);
+	}
+
+	/**
+	 * Align the eastern neighbors of a word's cells with the word.
+	 * 
+	 * @param word
+	 *            Word being evolved
+	 * @param next
+	 *            Word to the east of word (or zero at the edge)
+	 * @return Word where bit y holds the cell east of bit y in word
+	 */
+	static long east(long word, long next) {
+		return (word >>> 1) | (next << 63);
+	}
+
+	/**
+	 * Evolve 64 cells by one generation given their aligned neighbor words.
+	 * 
+	 * @param nw
+	 *            North-west neighbors
+	 * @param n
+	 *            North neighbors
+	 * @param ne
+	 *            North-east neighbors
+	 * @param w
+	 *            West neighbors
+	 * @param c
+	 *            Cells being evolved
+	 * @param e
+	 *            East neighbors
+	 * @param sw
+	 *            South-west neighbors
+	 * @param s
+	 *            South neighbors
+	 * @param se
+	 *            South-east neighbors
+	 * @param rule
+	 *            Encoded rule
+	 * @return Next generation of the 64 cells in c
+	 */
+	static long evolve(long nw, long n, long ne, long w, long c, long e,
+			long sw, long s, long se, long rule) {
+		// sum each row of neighbors into a two bit value (ones and twos)
+		long northXor = nw ^ n;
+		long north0 = northXor ^ ne;
+		long north1 = (nw & n) | (northXor & ne);
+
+		long southXor = sw ^ s;
+		long south0 = southXor ^ se;
+		long south1 = (sw & s) | (southXor & se);
+
+		long mid0 = w ^ e;
+		long mid1 = w & e;
+
+		// sum the three rows into the four bit-planes of the neighbor count
+		long onesXor = north0 ^ south0;
+		long bit0 = onesXor ^ mid0;
+		long onesCarry = (north0 & south0) | (onesXor & mid0);
+
+		long twosXor = north1 ^ south1;
+		long twos = twosXor ^ mid1;
+		long twosCarry = (north1 & south1) | (twosXor & mid1);
+
+		long bit1 = twos ^ onesCarry;
+		long foursCarry = twos & onesCarry;
+		long bit2 = twosCarry ^ foursCarry;
+		long bit3 = twosCarry & foursCarry;
+
+		return applyRule(bit0, bit1, bit2, bit3, c, rule);
+	}
+
+	/**
+	 * Apply a rule to 64 cells given the bit-planes of their neighbor counts.
+	 * 
+	 * @param bit0
+	 *            Ones plane of the neighbor counts
+	 * @param bit1
+	 *            Twos plane of the neighbor counts
+	 * @param bit2
+	 *            Fours plane of the neighbor counts
+	 * @param bit3
+	 *            Eights plane of the neighbor counts
+	 * @param c
+	 *            Current state of the cells
+	 * @param rule
+	 *            Encoded rule
+	 * @return Next generation of the 64 cells in c
+	 */
+	static long applyRule(long bit0, long bit1, long bit2, long bit3, long c,
+			long rule) {
+		long next = 0;
+		for (int count = 0; count <= 8; count++) {
+			// each plane is kept as-is where count has the bit set and
+			// inverted where it does not, leaving only cells equal to count
+			long equal = (bit0 ^ ((count & 1) - 1))
+					& (bit1 ^ (((count >>> 1) & 1) - 1))
+					& (bit2 ^ (((count >>> 2) & 1) - 1))
+					& (bit3 ^ (((count >>> 3) & 1) - 1));
+
+			long born = -((rule >>> count) & 1);
+			long survive = -((rule >>> (count + SURVIVE_SHIFT)) & 1);
+			next |= equal & ((born & ~c) | (survive & c));
+		}
+
+		return next;
+	}
+
+	/**
+	 * Evolve a full row of packed cells by one generation. Only the first and
+	 * last words of the row go through {@link LifeKernel#evolveWord}, which
+	 * handles the halo columns beyond either edge of the row; every word in
+	 * between is evolved without any edge checks.
+	 * 
+	 * @param cells
+	 *            Rows of the world, along with the halo rows at its edges
+	 * @param row
+	 *            Index of the first word of the evolving row, whose northern
+	 *            and southern neighbor rows start words before and after it
+	 * @param words
+	 *            Number of words per row
+	 * @param out
+	 *            Destination for the evolved row
+	 * @param outRow
+	 *            Index of the first word of the evolved row within out
+	 * @param width
+	 *            Number of cells in the row
+	 * @param rule
+	 *            Encoded rule
+	 * @param wrap
+	 *            True if the row wraps around (its first and last cells are
+	 *            neighbors), false if the cells beyond either edge are dead
+	 * @return Number of living cells in the evolved row
+	 */
+	static long evolveRow(long[] cells, int row, int words, long[] out,
+			int outRow, int width, long rule, boolean wrap) {
+		int last = words - 1;
+
+		long next = evolveWord(cells, row, words, 0, width, rule, wrap);
+		out[outRow] = next;
+		long population = Long.bitCount(next);
+		if ( last == 0 ) {
+			return population;
+		}
+
+		int north = row - words, south = row + words;
+		for (int w = 1; w < last; w++) {
+			long nWord = cells[north + w], cWord = cells[row + w];
+			long sWord = cells[south + w];
+			next = evolve(west(cells[north + w - 1], nWord), nWord,
+					east(nWord, cells[north + w + 1]),
+					west(cells[row + w - 1], cWord), cWord,
+					east(cWord, cells[row + w + 1]),
+					west(cells[south + w - 1], sWord), sWord,
+					east(sWord, cells[south + w + 1]), rule);
+
+			out[outRow + w] = next;
+			population += Long.bitCount(next);
+		}
+
+		next = evolveWord(cells, row, words, last, width, rule, wrap);
+		out[outRow + last] = next;
+		return population + Long.bitCount(next);
+	}
+
+	/**
+	 * Evolve a single word of a row by one generation. Cells beyond either
+	 * edge of the row are taken from the halo column on that side: the cell
+	 * at the opposite end of the same row if the row wraps, or a dead cell
+	 * otherwise.
+	 * 
+	 * @param cells
+	 *            Rows of the world, along with the halo rows at its edges
+	 * @param row
+	 *            Index of the first word of the row containing the evolving
+	 *            word, whose neighbor rows start words before and after it
+	 * @param words
+	 *            Number of words per row
+	 * @param w
+	 *            Index of the word to evolve within its row
+	 * @param width
+	 *            Number of cells in the row
+	 * @param rule
+	 *            Encoded rule
+	 * @param wrap
+	 *            True if the row wraps around, false if the cells beyond
+	 *            either edge are dead
+	 * @return Next generation of word w
+	 */
+	static long evolveWord(long[] cells, int row, int words, int w,
+			int width, long rule, boolean wrap) {
+		int last = words - 1;
+		// number of cells held by the last word (1 to 64)
+		int lastBits = width - last * WORD_BITS;
+
+		int north = row - words, south = row + words;
+		long nWord = cells[north + w], cWord = cells[row + w];
+		long sWord = cells[south + w];
+
+		long nPrev, cPrev, sPrev;
+		if ( w > 0 ) {
+			nPrev = cells[north + w - 1];
+			cPrev = cells[row + w - 1];
+			sPrev = cells[south + w - 1];
+		} else {
+			nPrev = westHalo(cells, north, words, lastBits, wrap);
+			cPrev = westHalo(cells, row, words, lastBits, wrap);
+			sPrev = westHalo(cells, south, words, lastBits, wrap);
+		}
+
+		long nNext = 0, cNext = 0, sNext = 0;
+		if ( w < last ) {
+			nNext = cells[north + w + 1];
+			cNext = cells[row + w + 1];
+			sNext = cells[south + w + 1];
+		} else if ( lastBits == WORD_BITS ) {
+			nNext = eastHalo(cells, north, wrap);
+			cNext = eastHalo(cells, row, wrap);
+			sNext = eastHalo(cells, south, wrap);
+		} else {
+			// the halo cell sits just past the last cell within the last
+			// word; it is masked out of the result below
+			nWord |= eastHalo(cells, north, wrap) << lastBits;
+			cWord |= eastHalo(cells, row, wrap) << lastBits;
+			sWord |= eastHalo(cells, south, wrap) << lastBits;
+		}
+
+		long next = evolve(west(nPrev, nWord), nWord, east(nWord, nNext),
+				west(cPrev, cWord), cWord, east(cWord, cNext),
+				west(sPrev, sWord), sWord, east(sWord, sNext), rule);
+
+		return w == last ? next & lastWordMask(width) : next;
+	}
+
+	/**
+	 * Get the halo word to the west of the first word of a row.
+	 * 
+	 * @param cells
+	 *            Rows of the world
+	 * @param row
+	 *            Index of the first word of the row to get the halo of
+	 * @param words
+	 *            Number of words per row
+	 * @param lastBits
+	 *            Number of cells held by the last word of the row
+	 * @param wrap
+	 *            True if the row wraps around
+	 * @return Word whose highest bit holds the cell west of the row's first
+	 *         cell
+	 */
+	private static long westHalo(long[] cells, int row, int words,
+			int lastBits, boolean wrap) {
+		return wrap ? (cells[row + words - 1] >>> (lastBits - 1)) << 63 : 0;
+	}
+
+	/**
+	 * Get the cell to the east of the last cell of a row.
+	 * 
+	 * @param cells
+	 *            Rows of the world
+	 * @param row
+	 *            Index of the first word of the row to get the halo of
+	 * @param wrap
+	 *            True if the row wraps around
+	 * @return State of the cell east of the row's last cell
+	 */
+	private static long eastHalo(long[] cells, int row, boolean wrap) {
+		return wrap ? cells[row] & 1 : 0;
+	}
+
+	/**
+	 * Write the mirror image of a row, so that cell y of the destination row
+	 * holds cell (width - 1 - y) of the source row.
+	 * 
+	 * @precondition the source and destination rows do not overlap
+	 * 
+	 * @param src
+	 *            Array holding the row to mirror
+	 * @param srcRow
+	 *            Index of the first word of the row to mirror
+	 * @param dest
+	 *            Array holding the destination row
+	 * @param destRow
+	 *            Index of the first word of the destination row
+	 * @param words
+	 *            Number of words per row
+	 * @param width
+	 *            Number of cells in the row
+	 */
+	static void mirrorRow(long[] src, int srcRow, long[] dest, int destRow,
+			int words, int width) {
+		int last = words - 1;
+		for (int w = 0; w <= last; w++) {
+			dest[destRow + w] = Long.reverse(src[srcRow + last - w]);
+		}
+
+		// the reversed words are aligned to the end of the last word, so shift
+		// the whole row down by the unused bits of the last word
+		int pad = words * WORD_BITS - width;
+		if ( pad > 0 ) {
+			int end = destRow + last;
+			for (int w = destRow; w <= end; w++) {
+				long upper = w < end ? dest[w + 1] << (WORD_BITS - pad) : 0;
+				dest[w] = (dest[w] >>> pad) | upper;
+			}
+		}
+	}
+
+	// #########################################################################
+	// Internal Classes
+	// #########################################################################
+
+	/**
+	 * Evolves full rows of packed cells, with the same contract as
+	 * {@link LifeKernel#evolveRow}. Implementations must give bit-identical
+	 * results.
+	 */
+	interface RowEvolver {
+
+		/**
+		 * Evolve a full row of packed cells by one generation.
+		 * 
+		 * @param cells
+		 *            Rows of the world, along with the halo rows at its edges
+		 * @param row
+		 *            Index of the first word of the evolving row, whose
+		 *            neighbor rows start words before and after it
+		 * @param words
+		 *            Number of words per row
+		 * @param out
+		 *            Destination for the evolved row
+		 * @param outRow
+		 *            Index of the first word of the evolved row within out
+		 * @param width
+		 *            Number of cells in the row
+		 * @param rule
+		 *            Encoded rule
+		 * @param wrap
+		 *            True if the row wraps around, false if the cells beyond
+		 *            either edge are dead
+		 * @return Number of living cells in the evolved row
+		 */
+		long evolveRow(long[] cells, int row, int words, long[] out,
+				int outRow, int width, long rule, boolean wrap);
+
+	}
+
+	/**
+	 * Loads the vector kernel on first use only.
+	 */
+	private static final class VectorKernelHolder {
+
+		/**
+		 * Vector kernel, or null if it is not available
+		 */
+		static final RowEvolver	KERNEL	= loadVectorKernel();
+
+	}
+}
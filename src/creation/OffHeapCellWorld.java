@@ -0,0 +1,883 @@
+package creation;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+
+import creation.CellWorld.Topology;
+
+/**
+ * Off-heap implementation of the model, for worlds too large for the Java
+ * heap(i.e. 100000 x 100000 cells, 1.25 GB of packed cells). Cells are packed
+ * as in {@link CellWorld}, but the rows live in direct buffers outside of the
+ * heap, so the garbage collector never scans or copies them and its pauses do
+ * not depend on the world size.
+ * 
+ * The rows may instead be backed by a memory-mapped checkpoint file(see
+ * util.BinaryWorldFormat), in which case the file holds the world: ticks
+ * update it in place, and persisting the world only takes forcing the
+ * mapping to disk. The file is not crash-safe: a tick interrupted part way
+ * leaves its rows a mix of two generations, so the world runs a hook before
+ * its rows first change(after being mapped or forced) that marks the file
+ * as being changed.
+ * 
+ * Only a single generation is stored. Each tick evolves the world in place,
+ * row by row, keeping a rolling window of the three original rows around the
+ * evolving row(plus the original first and last rows, for the wrapping
+ * topologies) in small on-heap buffers. Ticks allocate nothing.
+ * 
+ * The initial state is not kept unless {@link OffHeapCellWorld#syncInitialState()}
+ * is called, since it doubles the memory used; without it,
+ * {@link OffHeapCellWorld#reset()} clears the world, or refuses to for a
+ * mapped world, whose rows are the user's checkpoint.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public class OffHeapCellWorld implements PackedWorld {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Largest number of bytes held by a single buffer of rows. Buffers are
+	 * indexed by int, so a world is split into slabs of whole rows.
+	 */
+	public static final int		MAX_SLAB_BYTES	= 1 << 30;
+
+	/**
+	 * Ticks since initial start of simulation. A tick is synonymous with a
+	 * generation.
+	 */
+	private long				tickCount;
+	/**
+	 * Tick count of the initial world state
+	 */
+	private long				initialTickCount;
+
+	/**
+	 * Initial population of the world before the simulation starts.
+	 */
+	private long				initialPopulationCount;
+	/**
+	 * Population of the world (i.e. number of alive cells)
+	 */
+	private long				populationCount;
+
+	/**
+	 * Size of the world
+	 */
+	private int					size;
+	/**
+	 * Number of words used to store a single row of the world
+	 */
+	private int					wordsPerRow;
+	/**
+	 * Number of rows held by each slab, all but the last slab are full
+	 */
+	private int					rowsPerSlab;
+
+	/**
+	 * Slabs of the current state of the world, row x is held by slab
+	 * x / rowsPerSlab
+	 */
+	private ByteBuffer[]		slabs;
+	/**
+	 * Packed rows of each slab, viewed as longs
+	 */
+	private LongBuffer[]		rows;
+	/**
+	 * Packed rows of the initial state of the world, or null while it is not
+	 * kept
+	 */
+	private LongBuffer[]		initialRows;
+	/**
+	 * Checkpoint file mapped by the slabs, or null for direct buffers
+	 */
+	private File				file;
+	/**
+	 * Hook run before the rows first change after the world was created or
+	 * forced, or null
+	 */
+	private Runnable			onChange;
+	/**
+	 * True once the rows changed since the world was created or forced
+	 */
+	private boolean				changed;
+
+	/**
+	 * Rolling window of the three original rows around the row evolved by a
+	 * tick, laid out back to back for {@link LifeKernel}, along with the
+	 * evolved row before it is written back
+	 */
+	private long[]				window;
+	private long[]				evolved;
+	/**
+	 * Original first and last rows of the world, which the wrapping
+	 * topologies need once the rows themselves have evolved
+	 */
+	private long[]				firstRow, lastRow;
+	/**
+	 * Halo rows of the Klein bottle topology, and of dead edges
+	 */
+	private long[]				mirrorNorth, mirrorSouth, emptyRow;
+
+	/**
+	 * True if the last tick left every cell unchanged
+	 */
+	private boolean				stable;
+
+	/**
+	 * Rule set of the simulation. Defaults to B3/S23.
+	 */
+	private RuleSet				ruleSet;
+	/**
+	 * The rule set compiled for {@link LifeKernel}
+	 */
+	private long				rule;
+	/**
+	 * Shape of the world's boundary
+	 */
+	private Topology			topology;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates new blank world with a size of ten. Uses default rule set of
+	 * B3/S23.
+	 */
+	public OffHeapCellWorld() {
+		this(10);
+	}
+
+	/**
+	 * Creates new blank world with a size of sz, held in direct buffers. Uses
+	 * default rule set of B3/S23.
+	 * 
+	 * @precondition sz is greater than zero
+	 * 
+	 * @param sz
+	 *            Size of the world
+	 */
+	public OffHeapCellWorld(int sz) {
+		ruleSet = RuleSet.CONWAY;
+		rule = ruleSet.encode();
+		topology = Topology.DEAD_EDGE;
+
+		this.setSize(sz);
+	}
+
+	/**
+	 * Creates a world held by existing buffers, i.e. the mapping of a
+	 * checkpoint file. Uses default rule set of B3/S23.
+	 * 
+	 * @precondition slabs hold the packed rows of a world of size sz, laid
+	 *               out as given by {@link OffHeapCellWorld#slabRows(int)},
+	 *               with little-endian words
+	 * 
+	 * @param sz
+	 *            Size of the world
+	 * @param slabs
+	 *            Buffers holding the rows, used from now on as the world
+	 * @param file
+	 *            File mapped by the buffers, or null
+	 * @param generation
+	 *            Generation of the world held by the buffers
+	 * @param onChange
+	 *            Hook run before the rows first change after the world is
+	 *            created or forced, i.e. to mark the file as being changed,
+	 *            or null
+	 */
+	public OffHeapCellWorld(int sz, ByteBuffer[] slabs, File file,
+			long generation, Runnable onChange) {
+		ruleSet = RuleSet.CONWAY;
+		rule = ruleSet.encode();
+		topology = Topology.DEAD_EDGE;
+
+		this.setLayout(sz);
+		this.slabs = slabs;
+		this.rows = viewRows(slabs);
+		this.file = file;
+		this.onChange = onChange;
+
+		this.maskRows();
+		populationCount = initialPopulationCount = this.countPopulation();
+		tickCount = initialTickCount = generation;
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Get the number of rows held by each slab of a world.
+	 * 
+	 * @param sz
+	 *            Size of the world
+	 * @return Rows per slab, the last slab holding the rows left over
+	 */
+	public static int slabRows(int sz) {
+		long rowBytes = (long) LifeKernel.wordsPerRow(sz) * 8;
+		return (int) Math.max(1, Math.min(sz, MAX_SLAB_BYTES / rowBytes));
+	}
+
+	/**
+	 * Get the number of slabs of a world.
+	 * 
+	 * @param sz
+	 *            Size of the world
+	 * @return Number of slabs
+	 */
+	public static int slabCount(int sz) {
+		return (sz - 1) / slabRows(sz) + 1;
+	}
+
+	/**
+	 * View the rows of each slab as little-endian longs.
+	 * 
+	 * @param slabs
+	 *            Slabs to view
+	 * @return Views of the slabs
+	 */
+	private static LongBuffer[] viewRows(ByteBuffer[] slabs) {
+		LongBuffer[] views = new LongBuffer[slabs.length];
+		for (int i = 0; i < slabs.length; i++) {
+			ByteBuffer slab = slabs[i].duplicate();
+			slab.clear();
+			views[i] = slab.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+		}
+		return views;
+	}
+
+	/**
+	 * Allocate direct buffers for the rows of a world of the current size.
+	 * 
+	 * @return Cleared slabs
+	 */
+	private ByteBuffer[] allocateSlabs() {
+		ByteBuffer[] allocated = new ByteBuffer[slabCount(size)];
+		for (int i = 0; i < allocated.length; i++) {
+			int slabRows = Math.min(rowsPerSlab, size - i * rowsPerSlab);
+			allocated[i] = ByteBuffer.allocateDirect(slabRows * wordsPerRow
+					* 8);
+		}
+		return allocated;
+	}
+
+	/**
+	 * Set the size of the world and the derived row layout values, along with
+	 * the scratch rows used by a tick.
+	 * 
+	 * @param sz
+	 *            New size of the world
+	 */
+	private void setLayout(int sz) {
+		size = sz;
+		wordsPerRow = LifeKernel.wordsPerRow(size);
+		rowsPerSlab = slabRows(size);
+
+		window = new long[3 * wordsPerRow];
+		evolved = new long[wordsPerRow];
+		firstRow = new long[wordsPerRow];
+		lastRow = new long[wordsPerRow];
+		mirrorNorth = new long[wordsPerRow];
+		mirrorSouth = new long[wordsPerRow];
+		emptyRow = new long[wordsPerRow];
+	}
+
+	/**
+	 * Set the size of the world, reallocating its buffers if the size
+	 * changes. The initial state is dropped along with the old buffers.
+	 * 
+	 * @param sz
+	 *            New size of the world
+	 * @throws IllegalArgumentException
+	 *             Occurs when the size of a mapped world would change
+	 */
+	private void setSize(int sz) {
+		if ( slabs != null && sz == size ) {
+			return;
+		}
+		if ( file != null ) {
+			throw new IllegalArgumentException("The size of a world mapped to "
+					+ file + " is fixed to " + size + ".");
+		}
+
+		this.setLayout(sz);
+		slabs = this.allocateSlabs();
+		rows = viewRows(slabs);
+		initialRows = null;
+	}
+
+	/**
+	 * Read a row of the world.
+	 * 
+	 * @param source
+	 *            Rows to read from, either the current or the initial rows
+	 * @param x
+	 *            Row to read
+	 * @param dest
+	 *            Destination of the row's words
+	 * @param offset
+	 *            Index of the row's first word within dest
+	 */
+	private void readRow(LongBuffer[] source, int x, long[] dest, int offset) {
+		LongBuffer slab = source[x / rowsPerSlab];
+		slab.position((x % rowsPerSlab) * wordsPerRow);
+		slab.get(dest, offset, wordsPerRow);
+	}
+
+	/**
+	 * Write a row of the world.
+	 * 
+	 * @param dest
+	 *            Rows to write to, either the current or the initial rows
+	 * @param x
+	 *            Row to write
+	 * @param src
+	 *            Words of the row
+	 */
+	private void writeRow(LongBuffer[] dest, int x, long[] src) {
+		LongBuffer slab = dest[x / rowsPerSlab];
+		slab.position((x % rowsPerSlab) * wordsPerRow);
+		slab.put(src);
+	}
+
+	/**
+	 * Get the index of the word holding a cell within its slab.
+	 * 
+	 * @param x
+	 *            X position of the cell
+	 * @param y
+	 *            Y position of the cell
+	 * @return Index of the word within slab x / rowsPerSlab
+	 */
+	private int wordIndex(int x, int y) {
+		return (x % rowsPerSlab) * wordsPerRow + (y >>> 6);
+	}
+
+	/**
+	 * Copy every row from one set of rows to another.
+	 * 
+	 * @param source
+	 *            Rows to copy from
+	 * @param dest
+	 *            Rows to copy to
+	 */
+	private void copyRows(LongBuffer[] source, LongBuffer[] dest) {
+		for (int i = 0; i < source.length; i++) {
+			LongBuffer from = source[i].duplicate();
+			from.clear();
+			LongBuffer to = dest[i];
+			to.clear();
+			to.put(from);
+		}
+	}
+
+	/**
+	 * Clear every bit past the last column, which must stay dead for the
+	 * kernel.
+	 */
+	private void maskRows() {
+		long lastMask = LifeKernel.lastWordMask(size);
+		for (int x = 0; x < size; x++) {
+			LongBuffer slab = rows[x / rowsPerSlab];
+			int index = this.wordIndex(x, size - 1);
+			slab.put(index, slab.get(index) & lastMask);
+		}
+	}
+
+	/**
+	 * Count the living cells of the world.
+	 * 
+	 * @return Population of the world
+	 */
+	private long countPopulation() {
+		long population = 0;
+		for (LongBuffer slab : rows) {
+			for (int i = 0; i < slab.limit(); i++) {
+				population += Long.bitCount(slab.get(i));
+			}
+		}
+		return population;
+	}
+
+	/**
+	 * Note that the rows are about to change, running the change hook if they
+	 * have not changed since the world was created or forced.
+	 */
+	private void beginChange() {
+		if ( !changed ) {
+			changed = true;
+			if ( onChange != null ) {
+				onChange.run();
+			}
+		}
+	}
+
+	/**
+	 * Save the current state of the world as its initial state, allocating
+	 * the initial rows if they are not kept yet.
+	 */
+	private void saveInitialState() {
+		if ( initialRows == null ) {
+			initialRows = viewRows(this.allocateSlabs());
+		}
+		this.copyRows(rows, initialRows);
+		initialPopulationCount = populationCount;
+	}
+
+	// #########################################################################
+	// Model Methods
+	// #########################################################################
+
+	/**
+	 * Load a pre-configured world setup.
+	 * 
+	 * @precondition newWorld is initialized
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 * @throws IllegalArgumentException
+	 *             Occurs when the world is mapped to a file and newWorld has a
+	 *             different size
+	 */
+	@Override
+	public void loadWorld(int[][] newWorld) {
+		this.loadWorld(newWorld, 0);
+	}
+
+	/**
+	 * Load a pre-configured world setup reached after a number of
+	 * generations.
+	 * 
+	 * @precondition newWorld is initialized and generation is not negative
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 * @param generation
+	 *            Generation of the world setup
+	 * @throws IllegalArgumentException
+	 *             Occurs when the world is mapped to a file and newWorld has a
+	 *             different size
+	 */
+	@Override
+	public void loadWorld(int[][] newWorld, long generation) {
+		this.setSize(newWorld.length);
+		this.beginChange();
+
+		long[] row = evolved;
+		populationCount = 0;
+		for (int x = 0; x < size; x++) {
+			for (int w = 0; w < wordsPerRow; w++) {
+				long word = 0;
+				for (int y = w << 6; y < Math.min(size, (w + 1) << 6); y++) {
+					if ( newWorld[x][y] == 1 ) {
+						word |= 1L << y;
+					}
+				}
+				row[w] = word;
+				populationCount += Long.bitCount(word);
+			}
+			this.writeRow(rows, x, row);
+		}
+
+		tickCount = initialTickCount = generation;
+		if ( initialRows != null ) {
+			this.saveInitialState();
+		}
+	}
+
+	/**
+	 * Load a world from bit-packed rows, copied straight into the world's
+	 * buffers one bulk copy per row.
+	 * 
+	 * @param newSize
+	 *            Size of the loaded world
+	 * @param packed
+	 *            Bit-packed rows of the world
+	 * @param generation
+	 *            Generation of the loaded world
+	 * @throws IllegalArgumentException
+	 *             Occurs when the world is mapped to a file and newSize is a
+	 *             different size
+	 */
+	@Override
+	public void loadPackedWorld(int newSize, LongBuffer packed, long generation) {
+		this.setSize(newSize);
+		this.beginChange();
+
+		long[] row = evolved;
+		long lastMask = LifeKernel.lastWordMask(size);
+		populationCount = 0;
+		for (int x = 0; x < size; x++) {
+			packed.get(row);
+			row[wordsPerRow - 1] &= lastMask;
+			for (int w = 0; w < wordsPerRow; w++) {
+				populationCount += Long.bitCount(row[w]);
+			}
+			this.writeRow(rows, x, row);
+		}
+
+		tickCount = initialTickCount = generation;
+		if ( initialRows != null ) {
+			this.saveInitialState();
+		}
+	}
+
+	/**
+	 * Save the current state of the world as bit-packed rows, row after row.
+	 * 
+	 * @param dest
+	 *            Destination of the rows
+	 */
+	@Override
+	public void savePackedWorld(LongBuffer dest) {
+		for (LongBuffer slab : rows) {
+			LongBuffer from = slab.duplicate();
+			from.clear();
+			dest.put(from);
+		}
+	}
+
+	/**
+	 * Load a pre-configured rule set.
+	 * 
+	 * @precondition ruleSet follows the rule set format specification
+	 * 
+	 * @param ruleSet
+	 *            Pre-configured rule set, see {@link RuleSet#parse(String)}
+	 * @throws IllegalArgumentException
+	 *             Occurs when the rule set is malformed
+	 */
+	@Override
+	public void loadRuleSet(String ruleSet) {
+		this.ruleSet = RuleSet.parse(ruleSet);
+		rule = this.ruleSet.encode();
+	}
+
+	/**
+	 * Get the rule set of the simulation.
+	 * 
+	 * @return Current rule set
+	 */
+	@Override
+	public RuleSet getRuleSet() {
+		return ruleSet;
+	}
+
+	/**
+	 * Get the world size
+	 * 
+	 * @return World size
+	 */
+	@Override
+	public int getWorldSize() {
+		return size;
+	}
+
+	/**
+	 * Get the population(alive cell) count.
+	 * 
+	 * @return Number of alive cells
+	 */
+	@Override
+	public long getPopulationCount() {
+		return populationCount;
+	}
+
+	/**
+	 * Get the state of the cell at (x, y)
+	 * 
+	 * @precondition x and y are in the range [0, size)
+	 * 
+	 * @param x
+	 *            X position of cell to check
+	 * @param y
+	 *            Y position of cell to check
+	 * @return The state of the cell at position (x, y)
+	 */
+	@Override
+	public int getCellState(int x, int y) {
+		return (int) (rows[x / rowsPerSlab].get(this.wordIndex(x, y)) >>> y) & 1;
+	}
+
+	/**
+	 * Set the state of the cell at (x, y)
+	 * 
+	 * @precondition x and y are in the range [0, size)
+	 * 
+	 * @param x
+	 *            X position of cell to set
+	 * @param y
+	 *            Y position of cell to set
+	 * @param state
+	 *            New state of the cell (1 = alive, 0 = dead)
+	 * @throws IllegalStateException
+	 *             Occurs when state is neither 0 nor 1
+	 */
+	@Override
+	public void setCellState(int x, int y, int state) {
+		if ( state != 0 && state != 1 ) {
+			throw new IllegalStateException("Invalid cell state: "
+					+ "expected '0' or '1'.");
+		} else if ( this.getCellState(x, y) != state ) {
+			this.invertCellState(x, y);
+		}
+	}
+
+	/**
+	 * Invert the state of the cell at (x, y)
+	 * 
+	 * @precondition x and y are in the range [0, size)
+	 * 
+	 * @param x
+	 *            X position of cell to invert
+	 * @param y
+	 *            Y position of cell to invert
+	 */
+	@Override
+	public void invertCellState(int x, int y) {
+		this.beginChange();
+		LongBuffer slab = rows[x / rowsPerSlab];
+		int index = this.wordIndex(x, y);
+		long word = slab.get(index) ^ 1L << y;
+		slab.put(index, word);
+		populationCount += ((word >>> y) & 1) == 1 ? 1 : -1;
+	}
+
+	/**
+	 * Process the next tick/generation of the world, in place. Each row is
+	 * evolved from the original rows held by the rolling window and written
+	 * straight back. Whether any word differs from its original is recorded,
+	 * see {@link OffHeapCellWorld#isStable()}.
+	 */
+	@Override
+	public void tick() {
+		this.beginChange();
+		boolean wrap = topology != Topology.DEAD_EDGE;
+
+		// the halos come from the original edge rows, which are overwritten
+		// before the opposite edge is evolved
+		this.readRow(rows, 0, firstRow, 0);
+		this.readRow(rows, size - 1, lastRow, 0);
+		long[] haloNorth, haloSouth;
+		switch (topology) {
+			case TORUS:
+				haloNorth = lastRow;
+				haloSouth = firstRow;
+				break;
+			case KLEIN_BOTTLE:
+				LifeKernel.mirrorRow(lastRow, 0, mirrorNorth, 0, wordsPerRow,
+						size);
+				LifeKernel.mirrorRow(firstRow, 0, mirrorSouth, 0, wordsPerRow,
+						size);
+				haloNorth = mirrorNorth;
+				haloSouth = mirrorSouth;
+				break;
+			default:
+				haloNorth = haloSouth = emptyRow;
+				break;
+		}
+
+		// the window holds the rows north of, at, and south of row x
+		int words = wordsPerRow;
+		System.arraycopy(haloNorth, 0, window, 0, words);
+		System.arraycopy(firstRow, 0, window, words, words);
+
+		long newPop = 0;
+		long changes = 0;
+		for (int x = 0; x < size; x++) {
+			if ( x < size - 1 ) {
+				this.readRow(rows, x + 1, window, 2 * words);
+			} else {
+				System.arraycopy(haloSouth, 0, window, 2 * words, words);
+			}
+
+			newPop += LifeKernel.evolveRow(window, words, words, evolved, 0,
+					size, rule, wrap);
+			for (int w = 0; w < words; w++) {
+				changes |= evolved[w] ^ window[words + w];
+			}
+			this.writeRow(rows, x, evolved);
+
+			// slide the window down to the next row
+			System.arraycopy(window, words, window, 0, 2 * words);
+		}
+
+		populationCount = newPop;
+		stable = changes == 0;
+		tickCount++;
+	}
+
+	/**
+	 * Advance the world by n generations, one tick at a time.
+	 * 
+	 * @precondition n is not negative
+	 * 
+	 * @param n
+	 *            Number of generations to advance
+	 * @return Number of generations advanced
+	 */
+	@Override
+	public long advance(long n) {
+		long advanced = 0;
+		while (advanced < n && !Thread.currentThread().isInterrupted()) {
+			this.tick();
+			advanced++;
+		}
+		return advanced;
+	}
+
+	/**
+	 * Check if the last tick left every cell unchanged, i.e. the world is
+	 * still life. This stands in for a change set, which a world of this size
+	 * cannot afford.
+	 * 
+	 * @return True if the last tick changed no cell
+	 */
+	public boolean isStable() {
+		return stable;
+	}
+
+	/**
+	 * Changes are not tracked, so the whole world must always be redrawn. See
+	 * {@link OffHeapCellWorld#isStable()} instead.
+	 * 
+	 * @return Always null
+	 */
+	@Override
+	public ChangeSet getChangeSet() {
+		return null;
+	}
+
+	/**
+	 * Reset the state of the world to its initial state, or clear it if the
+	 * initial state is not kept.
+	 * 
+	 * @throws IllegalStateException
+	 *             Occurs when the world is mapped to a file and the initial
+	 *             state is not kept, the mapping is then left untouched
+	 */
+	@Override
+	public void reset() {
+		if ( initialRows == null ) {
+			if ( file != null ) {
+				throw new IllegalStateException("The initial state of the "
+						+ "world mapped to " + file + " is not kept.");
+			}
+			this.clear();
+			return;
+		}
+
+		this.beginChange();
+		this.copyRows(initialRows, rows);
+		populationCount = initialPopulationCount;
+		tickCount = initialTickCount;
+	}
+
+	/**
+	 * Completely clear the world, making all cells dead.
+	 * 
+	 * @postcondition The world is cleared of all living cells, and the tick
+	 *                and population counts are set to zero.
+	 */
+	@Override
+	public void clear() {
+		this.beginChange();
+		for (int x = 0; x < size; x++) {
+			this.writeRow(rows, x, emptyRow);
+		}
+		tickCount = initialTickCount = 0;
+		populationCount = 0;
+		if ( initialRows != null ) {
+			this.saveInitialState();
+		}
+	}
+
+	/**
+	 * Resize the world to newSize and clear it.
+	 * 
+	 * @precondition newSize is greater than zero
+	 * 
+	 * @param newSize
+	 *            New size of the world
+	 * @throws IllegalArgumentException
+	 *             Occurs when the world is mapped to a file and newSize is a
+	 *             different size
+	 */
+	@Override
+	public void resize(int newSize) {
+		this.setSize(newSize);
+		this.clear();
+	}
+
+	/**
+	 * Sets the initial state of the world to the current state of the world.
+	 * The initial state takes as much off-heap memory as the world itself.
+	 */
+	@Override
+	public void syncInitialState() {
+		this.saveInitialState();
+		initialTickCount = tickCount;
+	}
+
+	/**
+	 * Get the number of ticks since start
+	 * 
+	 * @return Number of ticks since start
+	 */
+	@Override
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Set the shape of the world's boundary.
+	 * 
+	 * @param topology
+	 *            New topology of the world
+	 */
+	public void setTopology(Topology topology) {
+		this.topology = topology;
+	}
+
+	/**
+	 * Get the shape of the world's boundary.
+	 * 
+	 * @return Current topology
+	 */
+	public Topology getTopology() {
+		return topology;
+	}
+
+	/**
+	 * Get the checkpoint file mapped by the world.
+	 * 
+	 * @return Mapped file, or null if the world is held by direct buffers
+	 */
+	public File getMappedFile() {
+		return file;
+	}
+
+	/**
+	 * Write the rows of a mapped world back to its file. Nothing is done for
+	 * direct buffers. The change hook runs again before the rows next change.
+	 * 
+	 * @postcondition Every row changed since the world was mapped is on disk.
+	 */
+	public void force() {
+		for (ByteBuffer slab : slabs) {
+			if ( slab instanceof MappedByteBuffer ) {
+				((MappedByteBuffer) slab).force();
+			}
+		}
+		changed = false;
+	}
+
+}
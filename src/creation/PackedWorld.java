@@ -0,0 +1,46 @@
+package creation;
+
+import java.nio.LongBuffer;
+
+/**
+ * Model whose cells can be copied in and out as bit-packed rows, the layout
+ * shared by {@link CellWorld}, {@link OffHeapCellWorld} and the file formats:
+ * the cell at (x, y) is bit (y % 64) of word (x * wordsPerRow + y / 64), with
+ * wordsPerRow = ceil(size / 64) and every bit past the last column dead. File
+ * utilities use this to load and save worlds one bulk copy per row, without
+ * ever going through an int[][].
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public interface PackedWorld extends GOLModel {
+
+	/**
+	 * Load a world from bit-packed rows, row after row. The loaded world
+	 * becomes the initial state, at the given generation.
+	 * 
+	 * @precondition packed holds newSize * ceil(newSize / 64) words
+	 * 
+	 * @param newSize
+	 *            Size of the loaded world
+	 * @param packed
+	 *            Bit-packed rows of the world, bits past the last column are
+	 *            ignored
+	 * @param generation
+	 *            Generation of the loaded world
+	 */
+	void loadPackedWorld(int newSize, LongBuffer packed, long generation);
+
+	/**
+	 * Save the current state of the world as bit-packed rows, row after row.
+	 * 
+	 * @precondition dest has room for size * ceil(size / 64) words
+	 * 
+	 * @param dest
+	 *            Destination of the rows
+	 * 
+	 * @postcondition dest is positioned after the last row
+	 */
+	void savePackedWorld(LongBuffer dest);
+
+}
@@ -0,0 +1,193 @@
+package creation;
+
+/**
+ * Rule set of a Life-like cellular automaton, compiled from a rule string into
+ * a 2x9 lookup table of the next state of a cell indexed by its current state
+ * and its number of living neighbors.
+ * 
+ * Rule strings use the B/S notation: "B" followed by every neighbor count at
+ * which a dead cell is born, and "S" followed by every neighbor count at which
+ * a living cell survives. The standard Game of Life is "B3/S23" and HighLife
+ * is "B36/S23". The separating slash is optional, the letters may be in
+ * either case or order, and the older "23/3" survive/born notation is also
+ * accepted.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public final class RuleSet {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Rule set of Conway's Game of Life
+	 */
+	public static final RuleSet	CONWAY	= RuleSet.parse("B3/S23");
+
+	/**
+	 * Next state of a cell, indexed by [current state][living neighbors]
+	 */
+	private final int[][]		table;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates a rule set from its lookup table.
+	 * 
+	 * @param table
+	 *            Next state of a cell by [current state][living neighbors]
+	 */
+	private RuleSet(int[][] table) {
+		this.table = table;
+	}
+
+	// #########################################################################
+	// Rule Set Methods
+	// #########################################################################
+
+	/**
+	 * Parse a rule string into a rule set.
+	 * 
+	 * @param ruleString
+	 *            Rule string such as "B3/S23"
+	 * @return Compiled rule set
+	 * @throws IllegalArgumentException
+	 *             Occurs when the rule string is malformed
+	 */
+	public static RuleSet parse(String ruleString) {
+		if ( ruleString == null ) {
+			throw new IllegalArgumentException("Invalid rule set: null");
+		}
+
+		String rule = ruleString.trim().toUpperCase();
+		int[][] table = new int[2][9];
+
+		// without letters the rule is in survive/born order
+		boolean legacy = rule.indexOf('B') < 0 && rule.indexOf('S') < 0;
+		int section = legacy ? CellWorld.ALIVE : -1;
+		boolean slashSeen = false;
+
+		for (int i = 0; i < rule.length(); i++) {
+			char c = rule.charAt(i);
+
+			if ( c == 'B' ) {
+				section = CellWorld.DEAD;
+			} else if ( c == 'S' ) {
+				section = CellWorld.ALIVE;
+			} else if ( c == '/' ) {
+				if ( slashSeen ) {
+					throw invalid(ruleString, i, "more than one '/'");
+				}
+				slashSeen = true;
+				if ( legacy ) {
+					section = CellWorld.DEAD;
+				}
+			} else if ( c >= '0' && c <= '8' && section >= 0 ) {
+				int count = c - '0';
+				if ( table[section][count] == CellWorld.ALIVE ) {
+					throw invalid(ruleString, i, "repeated count " + count);
+				}
+				table[section][count] = CellWorld.ALIVE;
+			} else {
+				throw invalid(ruleString, i, "unexpected '" + c + "'");
+			}
+		}
+
+		return new RuleSet(table);
+	}
+
+	/**
+	 * Create the exception thrown for a malformed rule string.
+	 * 
+	 * @param ruleString
+	 *            Rule string being parsed
+	 * @param index
+	 *            Index of the offending character
+	 * @param reason
+	 *            Description of the problem
+	 * @return Exception describing the problem
+	 */
+	private static IllegalArgumentException invalid(String ruleString,
+			int index, String reason) {
+		return new IllegalArgumentException("Invalid rule set \"" + ruleString
+				+ "\": " + reason + " at index " + index
+				+ ", expected format B#(#)/S#(#).");
+	}
+
+	/**
+	 * Get the next state of a cell.
+	 * 
+	 * @param state
+	 *            Current state of the cell
+	 * @param neighbors
+	 *            Number of living neighbors of the cell (0 to 8)
+	 * @return Next state of the cell
+	 */
+	public int nextState(int state, int neighbors) {
+		return table[state][neighbors];
+	}
+
+	/**
+	 * Check if a dead cell without any living neighbors is born. Such rules
+	 * cannot be used by unbounded worlds, where the infinite dead space would
+	 * come alive.
+	 * 
+	 * @return True if the rule contains B0
+	 */
+	public boolean bornFromNothing() {
+		return table[CellWorld.DEAD][0] == CellWorld.ALIVE;
+	}
+
+	/**
+	 * Encode the lookup table as a {@link LifeKernel} rule.
+	 * 
+	 * @return Encoded rule
+	 */
+	long encode() {
+		long rule = 0;
+		for (int count = 0; count <= 8; count++) {
+			rule |= (long) table[CellWorld.DEAD][count] << count;
+			rule |= (long) table[CellWorld.ALIVE][count] << (count + LifeKernel.SURVIVE_SHIFT);
+		}
+		return rule;
+	}
+
+	/**
+	 * Gets the rule set in B/S notation, such as "B3/S23".
+	 * 
+	 * @return Rule string of the rule set
+	 */
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder("B");
+		for (int count = 0; count <= 8; count++) {
+			if ( table[CellWorld.DEAD][count] == CellWorld.ALIVE ) {
+				out.append(count);
+			}
+		}
+
+		out.append("/S");
+		for (int count = 0; count <= 8; count++) {
+			if ( table[CellWorld.ALIVE][count] == CellWorld.ALIVE ) {
+				out.append(count);
+			}
+		}
+
+		return out.toString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof RuleSet && obj.toString().equals(this.toString());
+	}
+
+	@Override
+	public int hashCode() {
+		return this.toString().hashCode();
+	}
+
+}
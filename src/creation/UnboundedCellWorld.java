@@ -0,0 +1,644 @@
+package creation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Unbounded implementation of the model. Rather than a fixed square of cells,
+ * the world is a sparse map of chunks of {@link UnboundedCellWorld#CHUNK_SIZE}
+ * cells per side keyed by their packed chunk coordinates. Chunks are only
+ * allocated once living cells reach their border and are freed as soon as
+ * they empty, so memory follows the living population rather than the
+ * pattern's bounding box and patterns never die against a world edge.
+ * 
+ * The world size only determines the window of cells exposed through
+ * {@link UnboundedCellWorld#getCellState(int, int)}, while the population
+ * count covers every chunk.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public class UnboundedCellWorld implements GOLModel {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Number of cells per side of a chunk. Each row of a chunk is one word.
+	 */
+	public static final int			CHUNK_SIZE	= LifeKernel.WORD_BITS;
+
+	/**
+	 * Rows of an absent(all dead) chunk
+	 */
+	private static final long[]		EMPTY_ROWS	= new long[CHUNK_SIZE];
+
+	/**
+	 * Ticks since initial start of simulation. A tick is synonymous with a
+	 * generation.
+	 */
+	private long					tickCount;
+	/**
+	 * Tick count of the initial world state
+	 */
+	private long					initialTickCount;
+
+	/**
+	 * Initial population of the world before the simulation starts.
+	 */
+	private long					initialPopulationCount;
+	/**
+	 * Population of the world (i.e. number of alive cells)
+	 */
+	private long					populationCount;
+
+	/**
+	 * Size of the world window
+	 */
+	private int						size;
+	/**
+	 * Rows of every chunk of the initial state of the world, keyed by packed
+	 * chunk coordinates.
+	 */
+	private HashMap<Long, long[]>	initialChunks;
+	/**
+	 * Allocated chunks of the current state of the world, keyed by packed
+	 * chunk coordinates. See {@link UnboundedCellWorld#chunkKey(int, int)}.
+	 */
+	private HashMap<Long, Chunk>	chunks;
+
+	/**
+	 * Rule set of the simulation. Defaults to B3/S23.
+	 */
+	private RuleSet					ruleSet;
+	/**
+	 * The rule set compiled for {@link LifeKernel}
+	 */
+	private long					rule;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates new blank world with a window size of ten. Uses default rule set
+	 * of B3/S23.
+	 */
+	public UnboundedCellWorld() {
+		this(10);
+	}
+
+	/**
+	 * Creates new blank world with a window size of sz. Uses default rule set
+	 * of B3/S23.
+	 * 
+	 * @param sz
+	 *            Size of the world window
+	 */
+	public UnboundedCellWorld(int sz) {
+		size = sz;
+		chunks = new HashMap<Long, Chunk>();
+		initialChunks = new HashMap<Long, long[]>();
+
+		ruleSet = RuleSet.CONWAY;
+		rule = ruleSet.encode();
+	}
+
+	/**
+	 * Creates a world based on a pre-configured setup. Uses default rule set of
+	 * B3/S23.
+	 * 
+	 * @precondition worldConfig is initialized
+	 * 
+	 * @param worldConfig
+	 *            Pre-configured world setup
+	 */
+	public UnboundedCellWorld(int[][] worldConfig) {
+		this(worldConfig.length);
+		this.loadWorld(worldConfig);
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Pack chunk coordinates into a single 64-bit key.
+	 * 
+	 * @param cx
+	 *            Chunk row
+	 * @param cy
+	 *            Chunk column
+	 * @return Key of the chunk
+	 */
+	private static long chunkKey(int cx, int cy) {
+		return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Get the rows of the chunk at (cx, cy), or all dead rows if the chunk is
+	 * not allocated.
+	 * 
+	 * @param cx
+	 *            Chunk row
+	 * @param cy
+	 *            Chunk column
+	 * @return Rows of the chunk
+	 */
+	private long[] rowsOf(int cx, int cy) {
+		Chunk chunk = chunks.get(chunkKey(cx, cy));
+		return chunk == null ? EMPTY_ROWS : chunk.rows;
+	}
+
+	/**
+	 * Get the chunk at (cx, cy), allocating it if needed.
+	 * 
+	 * @param cx
+	 *            Chunk row
+	 * @param cy
+	 *            Chunk column
+	 * @return Chunk at (cx, cy)
+	 */
+	private Chunk getOrCreateChunk(int cx, int cy) {
+		Long key = chunkKey(cx, cy);
+		Chunk chunk = chunks.get(key);
+		if ( chunk == null ) {
+			chunk = new Chunk(cx, cy);
+			chunks.put(key, chunk);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Allocate every missing chunk that living cells on the border of an
+	 * allocated chunk could give birth into during the next tick.
+	 */
+	private void growChunks() {
+		for (Chunk chunk : new ArrayList<Chunk>(chunks.values())) {
+			long[] rows = chunk.rows;
+
+			long west = 0, east = 0;
+			for (int r = 0; r < CHUNK_SIZE; r++) {
+				west |= rows[r] & 1;
+				east |= rows[r] >>> (CHUNK_SIZE - 1);
+			}
+			boolean north = rows[0] != 0;
+			boolean south = rows[CHUNK_SIZE - 1] != 0;
+
+			int cx = chunk.cx, cy = chunk.cy;
+			if ( north ) {
+				this.getOrCreateChunk(cx - 1, cy);
+			}
+			if ( south ) {
+				this.getOrCreateChunk(cx + 1, cy);
+			}
+			if ( west != 0 ) {
+				this.getOrCreateChunk(cx, cy - 1);
+			}
+			if ( east != 0 ) {
+				this.getOrCreateChunk(cx, cy + 1);
+			}
+			if ( (rows[0] & 1) != 0 ) {
+				this.getOrCreateChunk(cx - 1, cy - 1);
+			}
+			if ( (rows[0] >>> (CHUNK_SIZE - 1)) != 0 ) {
+				this.getOrCreateChunk(cx - 1, cy + 1);
+			}
+			if ( (rows[CHUNK_SIZE - 1] & 1) != 0 ) {
+				this.getOrCreateChunk(cx + 1, cy - 1);
+			}
+			if ( (rows[CHUNK_SIZE - 1] >>> (CHUNK_SIZE - 1)) != 0 ) {
+				this.getOrCreateChunk(cx + 1, cy + 1);
+			}
+		}
+	}
+
+	/**
+	 * Process the next generation of a chunk into its next buffer.
+	 * 
+	 * @param chunk
+	 *            Chunk to process
+	 * @return Number of living cells in the chunk's next generation
+	 */
+	private long tickChunk(Chunk chunk) {
+		int cx = chunk.cx, cy = chunk.cy;
+		long[] c = chunk.rows;
+		long[] n = this.rowsOf(cx - 1, cy), s = this.rowsOf(cx + 1, cy);
+		long[] w = this.rowsOf(cx, cy - 1), e = this.rowsOf(cx, cy + 1);
+		long[] nw = this.rowsOf(cx - 1, cy - 1);
+		long[] ne = this.rowsOf(cx - 1, cy + 1);
+		long[] sw = this.rowsOf(cx + 1, cy - 1);
+		long[] se = this.rowsOf(cx + 1, cy + 1);
+
+		int last = CHUNK_SIZE - 1;
+		long population = 0;
+		for (int r = 0; r < CHUNK_SIZE; r++) {
+			long up = r > 0 ? c[r - 1] : n[last];
+			long upWest = r > 0 ? w[r - 1] : nw[last];
+			long upEast = r > 0 ? e[r - 1] : ne[last];
+			long down = r < last ? c[r + 1] : s[0];
+			long downWest = r < last ? w[r + 1] : sw[0];
+			long downEast = r < last ? e[r + 1] : se[0];
+
+			long next = LifeKernel.evolve(LifeKernel.west(upWest, up), up,
+					LifeKernel.east(up, upEast),
+					LifeKernel.west(w[r], c[r]), c[r],
+					LifeKernel.east(c[r], e[r]),
+					LifeKernel.west(downWest, down), down,
+					LifeKernel.east(down, downEast), rule);
+
+			chunk.next[r] = next;
+			population += Long.bitCount(next);
+		}
+
+		return population;
+	}
+
+	// #########################################################################
+	// Model Methods
+	// #########################################################################
+
+	/**
+	 * Load a pre-configured world setup into the window.
+	 * 
+	 * @precondition newWorld is initialized
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 */
+	@Override
+	public void loadWorld(int[][] newWorld) {
+		this.loadWorld(newWorld, 0);
+	}
+
+	/**
+	 * Load a pre-configured world setup reached after a number of
+	 * generations into the window.
+	 * 
+	 * @precondition newWorld is initialized and generation is not negative
+	 * 
+	 * @param newWorld
+	 *            Pre-configured world setup
+	 * @param generation
+	 *            Generation of the world setup
+	 */
+	@Override
+	public void loadWorld(int[][] newWorld, long generation) {
+		size = newWorld.length;
+		chunks.clear();
+		populationCount = 0;
+
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				if ( newWorld[x][y] == CellWorld.ALIVE ) {
+					this.setCellState(x, y, CellWorld.ALIVE);
+				}
+			}
+		}
+
+		this.syncInitialState();
+		tickCount = initialTickCount = generation;
+	}
+
+	/**
+	 * Load a pre-configured rule set.
+	 * 
+	 * @precondition ruleSet follows the rule set format specification
+	 * 
+	 * @param ruleSet
+	 *            Pre-configured rule set, see {@link RuleSet#parse(String)}
+	 * @throws IllegalArgumentException
+	 *             Occurs when the rule set is malformed, or when it contains
+	 *             B0 which would bring every unallocated chunk to life
+	 */
+	@Override
+	public void loadRuleSet(String ruleSet) {
+		RuleSet parsed = RuleSet.parse(ruleSet);
+		if ( parsed.bornFromNothing() ) {
+			throw new IllegalArgumentException("Rule set " + parsed
+					+ " is not supported by an unbounded world.");
+		}
+
+		this.ruleSet = parsed;
+		rule = parsed.encode();
+	}
+
+	/**
+	 * Get the rule set of the simulation.
+	 * 
+	 * @return Current rule set
+	 */
+	@Override
+	public RuleSet getRuleSet() {
+		return ruleSet;
+	}
+
+	/**
+	 * Get the world window size
+	 * 
+	 * @return World window size
+	 */
+	@Override
+	public int getWorldSize() {
+		return size;
+	}
+
+	/**
+	 * Get the population(alive cell) count of the whole world, including
+	 * cells outside of the window.
+	 * 
+	 * @return Number of alive cells
+	 */
+	@Override
+	public long getPopulationCount() {
+		return populationCount;
+	}
+
+	/**
+	 * Get the state of the cell at (x, y). Any coordinates may be used, not
+	 * only those within the window.
+	 * 
+	 * @param x
+	 *            X position of cell to check
+	 * @param y
+	 *            Y position of cell to check
+	 * @return The state of the cell at position (x, y)
+	 */
+	@Override
+	public int getCellState(int x, int y) {
+		long[] rows = this.rowsOf(Math.floorDiv(x, CHUNK_SIZE),
+				Math.floorDiv(y, CHUNK_SIZE));
+		return (int) (rows[Math.floorMod(x, CHUNK_SIZE)] >>> y) & 1;
+	}
+
+	/**
+	 * Set the state of the cell at (x, y). Any coordinates may be used, not
+	 * only those within the window.
+	 * 
+	 * @precondition state is either 0 or 1.
+	 * 
+	 * @param x
+	 *            X position of cell to set
+	 * @param y
+	 *            Y position of cell to set
+	 * @param state
+	 *            The state to set the cell to
+	 */
+	@Override
+	public void setCellState(int x, int y, int state) {
+		if ( state != 0 && state != 1 ) {
+			throw new IllegalStateException("Invalid cell state: "
+					+ "expected '0' or '1'.");
+		} else if ( this.getCellState(x, y) != state ) {
+			this.invertCellState(x, y);
+		}
+	}
+
+	/**
+	 * Invert the state of the cell (i.e. 0 -> 1, 1 -> 0)
+	 * 
+	 * @param x
+	 *            X position of cell to check
+	 * @param y
+	 *            Y position of cell to check
+	 */
+	@Override
+	public void invertCellState(int x, int y) {
+		Chunk chunk = this.getOrCreateChunk(Math.floorDiv(x, CHUNK_SIZE),
+				Math.floorDiv(y, CHUNK_SIZE));
+
+		int r = Math.floorMod(x, CHUNK_SIZE);
+		chunk.rows[r] ^= 1L << y;
+		if ( ((chunk.rows[r] >>> y) & 1) == CellWorld.ALIVE ) {
+			populationCount++;
+		} else {
+			populationCount--;
+		}
+	}
+
+	/**
+	 * Process the next tick/generation of the world. Chunks are grown where
+	 * living cells reach their border, every chunk is processed into its next
+	 * buffer, and then the buffers are swapped and chunks left empty are
+	 * freed.
+	 */
+	@Override
+	public void tick() {
+		this.growChunks();
+
+		long newPop = 0;
+		for (Chunk chunk : chunks.values()) {
+			newPop += this.tickChunk(chunk);
+		}
+
+		Iterator<Chunk> it = chunks.values().iterator();
+		while (it.hasNext()) {
+			Chunk chunk = it.next();
+			chunk.swap();
+			if ( chunk.isEmpty() ) {
+				it.remove();
+			}
+		}
+
+		populationCount = newPop;
+		tickCount++;
+	}
+
+	/**
+	 * Advance the world by n generations, one tick at a time.
+	 * 
+	 * @precondition n is not negative
+	 * 
+	 * @param n
+	 *            Number of generations to advance
+	 * @return Number of generations advanced
+	 */
+	@Override
+	public long advance(long n) {
+		long advanced = 0;
+		while (advanced < n && !Thread.currentThread().isInterrupted()) {
+			this.tick();
+			advanced++;
+		}
+		return advanced;
+	}
+
+	/**
+	 * Changes are not tracked by the chunk map, so the whole world must always be
+	 * redrawn.
+	 * 
+	 * @return Always null
+	 */
+	@Override
+	public ChangeSet getChangeSet() {
+		return null;
+	}
+
+	/**
+	 * Reset the state of the world to its initial state.
+	 */
+	@Override
+	public void reset() {
+		chunks.clear();
+		for (Map.Entry<Long, long[]> entry : initialChunks.entrySet()) {
+			long key = entry.getKey();
+			Chunk chunk = new Chunk((int) (key >> 32), (int) key);
+			System.arraycopy(entry.getValue(), 0, chunk.rows, 0, CHUNK_SIZE);
+			chunks.put(key, chunk);
+		}
+
+		populationCount = initialPopulationCount;
+		tickCount = initialTickCount;
+	}
+
+	/**
+	 * Completely clear the world, making all cells dead.
+	 */
+	@Override
+	public void clear() {
+		chunks.clear();
+		initialChunks.clear();
+		tickCount = initialTickCount = 0;
+		populationCount = initialPopulationCount = 0;
+	}
+
+	/**
+	 * Resize the world window to newSize and clear it.
+	 * 
+	 * @precondition newSize is greater than zero
+	 * 
+	 * @param newSize
+	 *            New size of the world window
+	 */
+	@Override
+	public void resize(int newSize) {
+		size = newSize;
+		this.clear();
+	}
+
+	/**
+	 * Sets the initial state of the world to the current state of the world.
+	 */
+	@Override
+	public void syncInitialState() {
+		initialChunks.clear();
+		for (Map.Entry<Long, Chunk> entry : chunks.entrySet()) {
+			if ( !entry.getValue().isEmpty() ) {
+				initialChunks.put(entry.getKey(), entry.getValue().rows.clone());
+			}
+		}
+		initialPopulationCount = populationCount;
+	}
+
+	/**
+	 * Get the number of ticks since start
+	 * 
+	 * @return Number of ticks since start
+	 */
+	@Override
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Get the number of chunks currently allocated.
+	 * 
+	 * @return Number of allocated chunks
+	 */
+	public int getChunkCount() {
+		return chunks.size();
+	}
+
+	/**
+	 * Gets the world window as a formatted string. This string is compliant
+	 * with the file format specification.
+	 * 
+	 * @return Formatted string representation of the world
+	 */
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				out.append(this.getCellState(x, y) + " ");
+				if ( y != size - 1 ) {
+					out.append(" ");
+				}
+			}
+
+			if ( x != size - 1 ) {
+				out.append("\n");
+			}
+		}
+
+		return out.toString();
+	}
+
+	// #########################################################################
+	// Internal Classes
+	// #########################################################################
+
+	/**
+	 * Square of {@link UnboundedCellWorld#CHUNK_SIZE} cells per side. Each row
+	 * is a single word, with bit y holding column y of the chunk.
+	 */
+	static final class Chunk {
+
+		/**
+		 * Position of the chunk in chunk coordinates
+		 */
+		final int	cx, cy;
+		/**
+		 * Current generation of the chunk's rows
+		 */
+		long[]		rows;
+		/**
+		 * Buffer the next generation of the chunk is written to
+		 */
+		long[]		next;
+
+		/**
+		 * Creates an empty chunk at (cx, cy).
+		 * 
+		 * @param cx
+		 *            Chunk row
+		 * @param cy
+		 *            Chunk column
+		 */
+		Chunk(int cx, int cy) {
+			this.cx = cx;
+			this.cy = cy;
+			rows = new long[CHUNK_SIZE];
+			next = new long[CHUNK_SIZE];
+		}
+
+		/**
+		 * Make the next generation the current generation.
+		 */
+		void swap() {
+			long[] tmp = rows;
+			rows = next;
+			next = tmp;
+		}
+
+		/**
+		 * Check if every cell of the chunk is dead.
+		 * 
+		 * @return True if the chunk is empty
+		 */
+		boolean isEmpty() {
+			for (long row : rows) {
+				if ( row != 0 ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
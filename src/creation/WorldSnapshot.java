@@ -0,0 +1,267 @@
+package creation;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of a world at one point of the simulation, published by the
+ * simulation thread for the view to render at its own pace. Cells are
+ * bit-packed 64 to a long, as in {@link CellWorld}.
+ * 
+ * Every snapshot has a version, one greater than the snapshot published
+ * before it. A snapshot taken exactly one tick after the previous one also
+ * carries the words flipped by that tick, so that a view showing the previous
+ * snapshot only has to redraw those words.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public final class WorldSnapshot {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Version of this snapshot
+	 */
+	private final long		version;
+	/**
+	 * Size of the world
+	 */
+	private final int		size;
+	/**
+	 * Number of words used to store a single row of the world
+	 */
+	private final int		wordsPerRow;
+	/**
+	 * Generation of the world
+	 */
+	private final long		generation;
+	/**
+	 * Population of the world
+	 */
+	private final long		population;
+	/**
+	 * Period of the cycle the world is in, or zero if none was found
+	 */
+	private final long		cyclePeriod;
+	/**
+	 * Bit-packed cells, the cell at (x, y) is bit (y % 64) of
+	 * cells[x * wordsPerRow + y / 64]
+	 */
+	private final long[]	cells;
+	/**
+	 * Indices (x * wordsPerRow + w) of the words that changed since the
+	 * previous version, or null if the changes are not known
+	 */
+	private final int[]		changedWords;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates a snapshot of a world.
+	 * 
+	 * @param version
+	 *            Version of the snapshot
+	 * @param size
+	 *            Size of the world
+	 * @param generation
+	 *            Generation of the world
+	 * @param population
+	 *            Population of the world
+	 * @param cyclePeriod
+	 *            Period of the cycle the world is in, or zero
+	 * @param cells
+	 *            Bit-packed cells, owned by the snapshot from now on
+	 * @param changedWords
+	 *            Words changed since the previous version, or null
+	 */
+	private WorldSnapshot(long version, int size, long generation,
+			long population, long cyclePeriod, long[] cells,
+			int[] changedWords) {
+		this.version = version;
+		this.size = size;
+		this.wordsPerRow = LifeKernel.wordsPerRow(size);
+		this.generation = generation;
+		this.population = population;
+		this.cyclePeriod = cyclePeriod;
+		this.cells = cells;
+		this.changedWords = changedWords;
+	}
+
+	// #########################################################################
+	// Snapshot Methods
+	// #########################################################################
+
+	/**
+	 * Take a snapshot of a model.
+	 * 
+	 * @precondition No other thread changes the model during the call
+	 * 
+	 * @param model
+	 *            Model to take a snapshot of
+	 * @param version
+	 *            Version of the snapshot
+	 * @param changes
+	 *            Changes since the previous version (i.e. the model's change
+	 *            set if it ticked exactly once since), or null
+	 * @return Snapshot of the model
+	 */
+	public static WorldSnapshot capture(GOLModel model, long version,
+			ChangeSet changes) {
+		int size = model.getWorldSize();
+		int wordsPerRow = LifeKernel.wordsPerRow(size);
+		long[] cells = new long[size * wordsPerRow];
+
+		long cyclePeriod = 0;
+		if ( model instanceof CellWorld ) {
+			((CellWorld) model).copyWorld(cells);
+			cyclePeriod = ((CellWorld) model).getCyclePeriod();
+		} else {
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					cells[x * wordsPerRow + (y >>> 6)] |= (long) model
+							.getCellState(x, y) << y;
+				}
+			}
+		}
+
+		int[] changedWords = null;
+		if ( changes != null ) {
+			changedWords = new int[changes.size()];
+			for (int i = 0; i < changedWords.length; i++) {
+				changedWords[i] = changes.getRow(i) * wordsPerRow
+						+ (changes.getColumn(i) >>> 6);
+			}
+		}
+
+		return new WorldSnapshot(version, size, model.getTickCount(),
+				model.getPopulationCount(), cyclePeriod, cells, changedWords);
+	}
+
+	/**
+	 * Get the version of the snapshot
+	 * 
+	 * @return Snapshot version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Get the world size
+	 * 
+	 * @return World size
+	 */
+	public int getWorldSize() {
+		return size;
+	}
+
+	/**
+	 * Get the number of words used to store a single row of the world
+	 * 
+	 * @return Words per row
+	 */
+	public int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	/**
+	 * Get the generation of the world
+	 * 
+	 * @return Ticks since start
+	 */
+	public long getTickCount() {
+		return generation;
+	}
+
+	/**
+	 * Get the population(alive cell) count.
+	 * 
+	 * @return Number of alive cells
+	 */
+	public long getPopulationCount() {
+		return population;
+	}
+
+	/**
+	 * Get the period of the cycle the world is in
+	 * 
+	 * @return Period of the cycle, or zero if none was found
+	 */
+	public long getCyclePeriod() {
+		return cyclePeriod;
+	}
+
+	/**
+	 * Get the state of the cell at (x, y)
+	 * 
+	 * @param x
+	 *            X position of cell to check
+	 * @param y
+	 *            Y position of cell to check
+	 * @return The state of the cell at position (x, y)
+	 */
+	public int getCellState(int x, int y) {
+		return (int) (cells[x * wordsPerRow + (y >>> 6)] >>> y) & 1;
+	}
+
+	/**
+	 * Get a word of 64 packed cells
+	 * 
+	 * @param index
+	 *            Index of the word (x * wordsPerRow + w)
+	 * @return Cells (x, 64 * w) through (x, 64 * w + 63)
+	 */
+	public long getWord(int index) {
+		return cells[index];
+	}
+
+	/**
+	 * Check if another snapshot holds exactly the same cells as this one.
+	 * 
+	 * @param other
+	 *            Snapshot to compare with
+	 * @return True if both snapshots are of the same size and every cell has
+	 *         the same state in both
+	 */
+	public boolean hasSameCells(WorldSnapshot other) {
+		return size == other.size && Arrays.equals(cells, other.cells);
+	}
+
+	/**
+	 * Check if the words changed since the previous version are known
+	 * 
+	 * @return True if {@link WorldSnapshot#getChangedWord(int)} is available
+	 */
+	public boolean hasChanges() {
+		return changedWords != null;
+	}
+
+	/**
+	 * Get the number of words changed since the previous version
+	 * 
+	 * @precondition {@link WorldSnapshot#hasChanges()} is true
+	 * 
+	 * @return Number of changed words
+	 */
+	public int getChangedWordCount() {
+		return changedWords.length;
+	}
+
+	/**
+	 * Get the index of a word changed since the previous version
+	 * 
+	 * @precondition {@link WorldSnapshot#hasChanges()} is true
+	 * 
+	 * @param i
+	 *            Index of the changed word (0 to changed word count - 1)
+	 * @return Index of the word (x * wordsPerRow + w)
+	 */
+	public int getChangedWord(int i) {
+		return changedWords[i];
+	}
+
+}
@@ -0,0 +1,1130 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import creation.CellWorld;
+import creation.GOLModel;
+import creation.OffHeapCellWorld;
+import creation.PackedWorld;
+import creation.RuleSet;
+
+
+
+// @formatter:off
+/**
+ * Reader and writer of the binary checkpoint format, meant for saving and
+ * restoring very large worlds. Files are memory-mapped, and the packed rows
+ * are copied between the mapping and a {@link PackedWorld}'s own buffers(i.e.
+ * a {@link CellWorld}'s arrays) one bulk copy per row, so a world never passes
+ * through an int[][] or a text decoder.
+ * 
+ * Plain checkpoints may also be mapped read-write as an
+ * {@link OffHeapCellWorld}, for worlds too large to copy onto the heap: the
+ * file then holds the world itself, see
+ * {@link BinaryWorldFormat#map(File)}. A mapped checkpoint is not
+ * crash-safe: its rows are rewritten in place tick after tick, and its header
+ * is only brought up to date by
+ * {@link BinaryWorldFormat#force(OffHeapCellWorld)}. Until then the header is
+ * marked open(version 3), and a file left open by a crash or a kill cannot be
+ * loaded, since its rows may mix two generations. Keep a copy of any
+ * checkpoint that must survive a crash.
+ * 
+ * Checkpoints may also be block-compressed: the rows are split into blocks
+ * that are deflated independently, so that a load inflates every block in
+ * parallel and {@link BinaryWorldFormat#readRegion(File, int, int, int, int)}
+ * only inflates the blocks holding the region.
+ * 
+ * 
+ * -------------------------- File Format Specification: -----------------------
+ * All values are little-endian.
+ * 
+ * Header(64 bytes):
+ * 		0	int		Magic number, the bytes "GOLB"
+ * 		4	int		Format version (1 = plain, 2 = block-compressed, 3 = plain
+ * 					but left open by a mapped world)
+ * 		8	int		World size N
+ * 		12	int		Words per row W = ceil(N / 64)
+ * 		16	long	Generation
+ * 		24	long	Population
+ * 		32	byte[32]	Rule set as ASCII(i.e. B3/S23), padded with zeros
+ * 
+ * Plain rows(N * W longs): the cell at (x, y) is bit (y % 64) of long
+ * (x * W + y / 64). Bits past the last column are zero.
+ * 
+ * Block-compressed rows:
+ * 		64	int		Rows per block R
+ * 		68	int		Number of blocks B = ceil(N / R)
+ * 		72	long[B + 1]	File offset of each block, then of the end of the
+ * 					last block
+ * 		...	Each block holds rows [b * R, min((b + 1) * R, N)) laid out as
+ * 			plain rows, compressed with {@link Deflater}
+ * 
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+// @formatter:on
+public final class BinaryWorldFormat {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Magic number starting every file, "GOLB" read as a little-endian int
+	 */
+	public static final int			MAGIC				= 0x424C4F47;
+	/**
+	 * Version of the format written for plain checkpoints
+	 */
+	public static final int			FORMAT_VERSION		= 1;
+	/**
+	 * Version of the format written for block-compressed checkpoints
+	 */
+	public static final int			COMPRESSED_VERSION	= 2;
+	/**
+	 * Version marking a plain checkpoint whose rows are being changed in
+	 * place by a mapped world, which is not loadable
+	 */
+	public static final int			OPEN_VERSION		= 3;
+	/**
+	 * Size of the header in bytes, a multiple of eight so the rows are
+	 * aligned
+	 */
+	public static final int			HEADER_SIZE			= 64;
+
+	/**
+	 * Offset and length of the rule set within the header
+	 */
+	private static final int		RULE_OFFSET			= 32;
+	private static final int		RULE_LENGTH			= 32;
+
+	/**
+	 * Uncompressed size in bytes that the blocks of a compressed checkpoint
+	 * are cut to, small enough to spread a world across every core and large
+	 * enough for deflate to compress well
+	 */
+	private static final int		BLOCK_BYTES			= 1 << 18;
+
+	/**
+	 * Pool that compresses and decompresses blocks
+	 */
+	private static final ForkJoinPool	BLOCK_POOL			= new ForkJoinPool();
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Utility class, not instantiated.
+	 */
+	private BinaryWorldFormat() {
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Get the number of bytes of packed rows of a world.
+	 * 
+	 * @param size
+	 *            Size of the world
+	 * @return Size of the rows in bytes
+	 */
+	private static long rowBytes(int size) {
+		return (long) size * ((size + 63) >>> 6) * 8;
+	}
+
+	/**
+	 * Parse and check the fields of a header.
+	 * 
+	 * @param buffer
+	 *            Little-endian bytes of the header, starting at index zero
+	 * @param header
+	 *            Header to fill in
+	 * @throws IOException
+	 *             Occurs when the header is not that of a valid checkpoint
+	 */
+	private static void parseHeader(ByteBuffer buffer, Header header)
+			throws IOException {
+		if ( buffer.getInt(0) != MAGIC ) {
+			throw new IOException("Invalid checkpoint file: bad magic number.");
+		}
+		header.version = buffer.getInt(4);
+		if ( header.version == OPEN_VERSION ) {
+			throw new IOException("Checkpoint file was not closed cleanly: "
+					+ "it was mapped and changed in place, but the world was "
+					+ "never saved, so its rows may mix two generations.");
+		}
+		if ( header.version != FORMAT_VERSION
+				&& header.version != COMPRESSED_VERSION ) {
+			throw new IOException("Unsupported checkpoint version: "
+					+ header.version);
+		}
+
+		header.size = buffer.getInt(8);
+		header.wordsPerRow = buffer.getInt(12);
+		header.generation = buffer.getLong(16);
+		header.population = buffer.getLong(24);
+		if ( header.size <= 0
+				|| header.wordsPerRow != (header.size + 63) >>> 6 ) {
+			throw new IOException("Invalid checkpoint file: bad world size "
+					+ header.size + ".");
+		}
+
+		int ruleLength = 0;
+		while (ruleLength < RULE_LENGTH
+				&& buffer.get(RULE_OFFSET + ruleLength) != 0) {
+			ruleLength++;
+		}
+		byte[] rule = new byte[ruleLength];
+		for (int i = 0; i < ruleLength; i++) {
+			rule[i] = buffer.get(RULE_OFFSET + i);
+		}
+		header.ruleSet = new String(rule, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Parse the rule set of a header.
+	 * 
+	 * @param header
+	 *            Header of the checkpoint
+	 * @return Rule set of the checkpoint
+	 * @throws IOException
+	 *             Occurs when the rule set is malformed
+	 */
+	private static RuleSet parseRuleSet(Header header) throws IOException {
+		try {
+			return RuleSet.parse(header.ruleSet);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid checkpoint file: " + e.getMessage(),
+					e);
+		}
+	}
+
+	/**
+	 * Map the whole of a file and read its header.
+	 * 
+	 * @param channel
+	 *            Channel of the file
+	 * @param header
+	 *            Header to fill in
+	 * @return Mapping of the file, positioned at the first row
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is not a valid
+	 *             checkpoint
+	 */
+	private static ByteBuffer mapFile(FileChannel channel, Header header)
+			throws IOException {
+		long length = channel.size();
+		if ( length < HEADER_SIZE ) {
+			throw new IOException("Invalid checkpoint file: missing header.");
+		}
+		if ( length > Integer.MAX_VALUE ) {
+			throw new IOException("Checkpoint file too large: " + length
+					+ " bytes.");
+		}
+
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+				length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		parseHeader(buffer, header);
+		if ( rowBytes(header.size) > Integer.MAX_VALUE ) {
+			throw new IOException("Invalid checkpoint file: bad world size "
+					+ header.size + ".");
+		}
+
+		if ( header.version == FORMAT_VERSION ) {
+			if ( length < HEADER_SIZE + rowBytes(header.size) ) {
+				throw new IOException("Invalid checkpoint file: world of size "
+						+ header.size + " does not match the file length.");
+			}
+		} else {
+			BinaryWorldFormat.readBlockIndex(buffer, header);
+		}
+
+		buffer.position(HEADER_SIZE);
+		return buffer;
+	}
+
+	/**
+	 * Read only the header of a file, without mapping the rest of it.
+	 * 
+	 * @param channel
+	 *            Channel of the file
+	 * @param header
+	 *            Header to fill in
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is not a valid
+	 *             checkpoint
+	 */
+	private static void readHeader(FileChannel channel, Header header)
+			throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(
+				ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()
+				&& channel.read(buffer, buffer.position()) >= 0) {
+			// keep reading until the whole header or the end of the file
+		}
+		if ( buffer.hasRemaining() ) {
+			throw new IOException("Invalid checkpoint file: missing header.");
+		}
+		parseHeader(buffer, header);
+	}
+
+	/**
+	 * Map the rows of a plain checkpoint read-write, split into the slabs of
+	 * an {@link OffHeapCellWorld}. Mapping past the end of the file extends
+	 * it.
+	 * 
+	 * @param channel
+	 *            Channel of the file, open for reading and writing
+	 * @param size
+	 *            Size of the world
+	 * @return Mapped slabs of rows
+	 * @throws IOException
+	 *             Occurs when the file cannot be mapped
+	 */
+	private static ByteBuffer[] mapSlabs(FileChannel channel, int size)
+			throws IOException {
+		int slabRows = OffHeapCellWorld.slabRows(size);
+		long rowBytes = ((size + 63) >>> 6) * 8L;
+
+		ByteBuffer[] slabs = new ByteBuffer[OffHeapCellWorld.slabCount(size)];
+		for (int i = 0; i < slabs.length; i++) {
+			int rows = Math.min(slabRows, size - i * slabRows);
+			slabs[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE
+					+ i * slabRows * rowBytes, rows * rowBytes);
+		}
+		return slabs;
+	}
+
+	/**
+	 * Create the change hook of a world mapped to a file, which marks the
+	 * file's header as open and forces the mark to disk, before the world's
+	 * rows change.
+	 * 
+	 * @param channel
+	 *            Channel of the file, open for reading and writing
+	 * @return Hook marking the file as open
+	 * @throws IOException
+	 *             Occurs when the header cannot be mapped
+	 */
+	private static Runnable openMarker(FileChannel channel) throws IOException {
+		final MappedByteBuffer head = channel.map(
+				FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+		head.order(ByteOrder.LITTLE_ENDIAN);
+		return new Runnable() {
+			@Override
+			public void run() {
+				head.putInt(4, OPEN_VERSION);
+				head.force();
+			}
+		};
+	}
+
+	/**
+	 * Write the header of a checkpoint of a model at the start of a file.
+	 * 
+	 * @param channel
+	 *            Channel of the file
+	 * @param model
+	 *            Model held by the file
+	 * @throws IOException
+	 *             Occurs when the file cannot be written to
+	 */
+	private static void writeHeader(FileChannel channel, GOLModel model)
+			throws IOException {
+		ByteBuffer head = ByteBuffer.allocate(HEADER_SIZE).order(
+				ByteOrder.LITTLE_ENDIAN);
+		putHeader(head, model, FORMAT_VERSION);
+		head.flip();
+		while (head.hasRemaining()) {
+			channel.write(head, head.position());
+		}
+	}
+
+	/**
+	 * Read the block index of a block-compressed checkpoint.
+	 * 
+	 * @param buffer
+	 *            Mapping of the file
+	 * @param header
+	 *            Header to fill in, holding the world size
+	 * @throws IOException
+	 *             Occurs when the index is malformed
+	 */
+	private static void readBlockIndex(ByteBuffer buffer, Header header)
+			throws IOException {
+		long length = buffer.capacity();
+		if ( length < HEADER_SIZE + 8 ) {
+			throw new IOException("Invalid checkpoint file: missing block index.");
+		}
+
+		header.rowsPerBlock = buffer.getInt(HEADER_SIZE);
+		int blockCount = buffer.getInt(HEADER_SIZE + 4);
+		if ( header.rowsPerBlock <= 0
+				|| blockCount != (header.size - 1) / header.rowsPerBlock + 1
+				|| length < HEADER_SIZE + 8 + 8L * (blockCount + 1) ) {
+			throw new IOException("Invalid checkpoint file: bad block index.");
+		}
+
+		header.blockOffsets = new long[blockCount + 1];
+		long previous = HEADER_SIZE + 8 + 8L * (blockCount + 1);
+		for (int b = 0; b <= blockCount; b++) {
+			long offset = buffer.getLong(HEADER_SIZE + 8 + 8 * b);
+			if ( offset < previous || offset > length ) {
+				throw new IOException("Invalid checkpoint file: block " + b
+						+ " is outside of the file.");
+			}
+			header.blockOffsets[b] = previous = offset;
+		}
+	}
+
+	/**
+	 * Get the number of rows held by a block of a compressed checkpoint.
+	 * 
+	 * @param header
+	 *            Header of the checkpoint
+	 * @param block
+	 *            Index of the block
+	 * @return Rows in the block, only fewer than rowsPerBlock for the last
+	 */
+	private static int blockRows(Header header, int block) {
+		return Math.min(header.rowsPerBlock, header.size - block
+				* header.rowsPerBlock);
+	}
+
+	/**
+	 * Inflate a block of a compressed checkpoint.
+	 * 
+	 * @param buffer
+	 *            Mapping of the file
+	 * @param header
+	 *            Header of the checkpoint
+	 * @param block
+	 *            Index of the block
+	 * @param dest
+	 *            Destination of the block's plain rows
+	 * @param offset
+	 *            Position in dest of the block's first row
+	 * @return True if the block inflated to exactly its rows
+	 */
+	private static boolean inflateBlock(ByteBuffer buffer, Header header,
+			int block, byte[] dest, int offset) {
+		// a duplicate keeps the position of concurrent readers apart
+		ByteBuffer src = buffer.duplicate();
+		src.limit((int) header.blockOffsets[block + 1]);
+		src.position((int) header.blockOffsets[block]);
+		byte[] input = new byte[src.remaining()];
+		src.get(input);
+
+		int expected = blockRows(header, block) * header.wordsPerRow * 8;
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(input);
+			int inflated = 0;
+			while (inflated < expected && !inflater.finished()) {
+				int n = inflater.inflate(dest, offset + inflated, expected
+						- inflated);
+				if ( n == 0 && (inflater.needsInput() || inflater.needsDictionary()) ) {
+					return false;
+				}
+				inflated += n;
+			}
+			return inflated == expected && inflater.finished();
+		} catch (DataFormatException e) {
+			return false;
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Deflate a span of plain rows into a block.
+	 * 
+	 * @param raw
+	 *            Plain rows of the whole world
+	 * @param offset
+	 *            Position in raw of the block's first row
+	 * @param length
+	 *            Length of the block's rows in bytes
+	 * @return Compressed block
+	 */
+	private static byte[] deflateBlock(byte[] raw, int offset, int length) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(raw, offset, length);
+			deflater.finish();
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream(length / 8 + 64);
+			byte[] chunk = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(chunk, 0, deflater.deflate(chunk));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Get the plain rows of a mapped file, inflating them first if the file
+	 * is block-compressed.
+	 * 
+	 * @param buffer
+	 *            Mapping of the file, positioned at the first row
+	 * @param header
+	 *            Header of the file
+	 * @return Rows as little-endian longs
+	 * @throws IOException
+	 *             Occurs when a block is corrupt
+	 */
+	private static LongBuffer plainRows(ByteBuffer buffer, Header header)
+			throws IOException {
+		if ( header.version == FORMAT_VERSION ) {
+			return rows(buffer);
+		}
+
+		byte[] raw = new byte[(int) rowBytes(header.size)];
+		if ( !BLOCK_POOL.invoke(new InflateBlocks(buffer, header, raw, 0,
+				header.blockOffsets.length - 1)) ) {
+			throw new IOException("Invalid checkpoint file: corrupt block.");
+		}
+		return ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN)
+				.asLongBuffer();
+	}
+
+	/**
+	 * Count the live cells of plain rows, ignoring the bits past the last
+	 * column as a world does when it loads them.
+	 * 
+	 * @param rows
+	 *            Rows to count, left where they are
+	 * @param header
+	 *            Header of the checkpoint
+	 * @return Number of live cells
+	 */
+	private static long countPopulation(LongBuffer rows, Header header) {
+		LongBuffer view = rows.duplicate();
+		long lastMask = -1L >>> (header.wordsPerRow * 64 - header.size);
+		long population = 0;
+		for (int x = 0; x < header.size; x++) {
+			for (int w = 1; w < header.wordsPerRow; w++) {
+				population += Long.bitCount(view.get());
+			}
+			population += Long.bitCount(view.get() & lastMask);
+		}
+		return population;
+	}
+
+	/**
+	 * Pack the current state of a model into plain rows.
+	 * 
+	 * @param model
+	 *            Model to pack
+	 * @param rows
+	 *            Destination of the rows
+	 */
+	private static void packRows(GOLModel model, LongBuffer rows) {
+		if ( model instanceof PackedWorld ) {
+			((PackedWorld) model).savePackedWorld(rows);
+			return;
+		}
+
+		int size = model.getWorldSize();
+		long[] row = new long[(size + 63) >>> 6];
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				row[y >>> 6] |= (long) model.getCellState(x, y) << y;
+			}
+			rows.put(row);
+			Arrays.fill(row, 0);
+		}
+	}
+
+	/**
+	 * Put the header of a checkpoint of a model.
+	 * 
+	 * @param buffer
+	 *            Little-endian destination, positioned at the file's start
+	 * @param model
+	 *            Model being saved
+	 * @param version
+	 *            Format version of the checkpoint
+	 * @throws IOException
+	 *             Occurs when the model's rule set does not fit the header
+	 * 
+	 * @postcondition buffer is positioned after the header
+	 */
+	private static void putHeader(ByteBuffer buffer, GOLModel model,
+			int version) throws IOException {
+		byte[] rule = model.getRuleSet().toString()
+				.getBytes(StandardCharsets.US_ASCII);
+		if ( rule.length > RULE_LENGTH ) {
+			throw new IOException("Rule set too long for a checkpoint: "
+					+ model.getRuleSet());
+		}
+
+		int size = model.getWorldSize();
+		int start = buffer.position();
+		buffer.putInt(MAGIC).putInt(version).putInt(size)
+				.putInt((size + 63) >>> 6);
+		buffer.putLong(model.getTickCount()).putLong(model.getPopulationCount());
+		buffer.put(rule);
+		while (buffer.position() < start + HEADER_SIZE) {
+			buffer.put((byte) 0);
+		}
+	}
+
+	/**
+	 * Write the whole of a buffer to a channel.
+	 * 
+	 * @param channel
+	 *            Channel to write to
+	 * @param buffer
+	 *            Bytes to write
+	 * @throws IOException
+	 *             Occurs when the channel cannot be written to
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Get a view of the rows of a mapped file.
+	 * 
+	 * @param buffer
+	 *            Mapping of the file, positioned at the first row
+	 * @return Rows as little-endian longs
+	 */
+	private static LongBuffer rows(ByteBuffer buffer) {
+		return buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+	}
+
+	// #########################################################################
+	// Format Methods
+	// #########################################################################
+
+	/**
+	 * Check if a file starts with the magic number of the format.
+	 * 
+	 * @param file
+	 *            File to check
+	 * @return True if the file is a checkpoint
+	 * @throws IOException
+	 *             Occurs when the file cannot be read
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ);
+		try {
+			ByteBuffer magic = ByteBuffer.allocate(4).order(
+					ByteOrder.LITTLE_ENDIAN);
+			while (magic.hasRemaining() && channel.read(magic) >= 0) {
+				// keep reading until the magic number or the end of the file
+			}
+			return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Load a checkpoint into a world, replacing its size, cells, generation
+	 * and rule set. The whole checkpoint is checked before the world is
+	 * touched, so a corrupt file leaves the world as it was.
+	 * 
+	 * @param file
+	 *            Checkpoint to load
+	 * @param model
+	 *            World to load into
+	 * @throws IOException
+	 *             Occurs when the file cannot be read, is not a valid
+	 *             checkpoint, or holds an unsupported rule set
+	 */
+	public static void load(File file, PackedWorld model) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ);
+		try {
+			Header header = new Header();
+			ByteBuffer buffer = mapFile(channel, header);
+			RuleSet ruleSet = parseRuleSet(header);
+			LongBuffer rows = plainRows(buffer, header);
+
+			long population = countPopulation(rows, header);
+			if ( population != header.population ) {
+				throw new IOException("Invalid checkpoint file: population "
+						+ population + " does not match the header's "
+						+ header.population + ".");
+			}
+
+			model.loadPackedWorld(header.size, rows, header.generation);
+			model.loadRuleSet(ruleSet.toString());
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Read a checkpoint as a 2D array, for models other than a
+	 * {@link PackedWorld}.
+	 * 
+	 * @param file
+	 *            Checkpoint to read
+	 * @return World held by the checkpoint, along with its rule set and
+	 *         generation
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is not a valid
+	 *             checkpoint
+	 */
+	public static GOLFileHandler.WorldFile read(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ);
+		try {
+			Header header = new Header();
+			LongBuffer rows = plainRows(mapFile(channel, header), header);
+
+			int[][] world = new int[header.size][header.size];
+			long[] row = new long[header.wordsPerRow];
+			for (int x = 0; x < header.size; x++) {
+				rows.get(row);
+				for (int y = 0; y < header.size; y++) {
+					world[x][y] = (int) (row[y >>> 6] >>> y) & 1;
+				}
+			}
+
+			return new GOLFileHandler.WorldFile(world, header.ruleSet,
+					header.generation);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Read a rectangular region of a checkpoint, without reading the rest of
+	 * the world. Only the blocks holding the region's rows are inflated.
+	 * 
+	 * @param file
+	 *            Checkpoint to read
+	 * @param minX
+	 *            First row of the region
+	 * @param minY
+	 *            First column of the region
+	 * @param maxX
+	 *            Last row of the region (inclusive)
+	 * @param maxY
+	 *            Last column of the region (inclusive)
+	 * @return Cell states of the region, the cell at (x, y) is
+	 *         region[x - minX][y - minY]
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is not a valid
+	 *             checkpoint
+	 * @throws IllegalArgumentException
+	 *             Occurs when the region is empty or not within the world
+	 */
+	public static int[][] readRegion(File file, int minX, int minY, int maxX,
+			int maxY) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ);
+		try {
+			Header header = new Header();
+			ByteBuffer buffer = mapFile(channel, header);
+			if ( minX < 0 || minY < 0 || maxX >= header.size
+					|| maxY >= header.size || minX > maxX || minY > maxY ) {
+				throw new IllegalArgumentException("Invalid region: (" + minX
+						+ ", " + minY + ") to (" + maxX + ", " + maxY
+						+ ") of a world of size " + header.size + ".");
+			}
+
+			int[][] region = new int[maxX - minX + 1][maxY - minY + 1];
+			long[] row = new long[header.wordsPerRow];
+
+			LongBuffer rows = null;
+			int firstRow = 0;
+			if ( header.version == FORMAT_VERSION ) {
+				rows = rows(buffer);
+			}
+
+			for (int x = minX; x <= maxX; x++) {
+				if ( header.version == COMPRESSED_VERSION
+						&& (rows == null || x == firstRow + header.rowsPerBlock) ) {
+					int block = x / header.rowsPerBlock;
+					byte[] raw = new byte[blockRows(header, block)
+							* header.wordsPerRow * 8];
+					if ( !inflateBlock(buffer, header, block, raw, 0) ) {
+						throw new IOException(
+								"Invalid checkpoint file: corrupt block.");
+					}
+					rows = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN)
+							.asLongBuffer();
+					firstRow = block * header.rowsPerBlock;
+				}
+
+				rows.position((x - firstRow) * header.wordsPerRow);
+				rows.get(row);
+				for (int y = minY; y <= maxY; y++) {
+					region[x - minX][y - minY] = (int) (row[y >>> 6] >>> y) & 1;
+				}
+			}
+
+			return region;
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Map a plain checkpoint as an {@link OffHeapCellWorld}, whose rows are
+	 * the file's own rows. Ticks update the file in place, and
+	 * {@link BinaryWorldFormat#force(OffHeapCellWorld)} persists the world.
+	 * Unlike {@link BinaryWorldFormat#load(File, PackedWorld)}, the world may
+	 * be larger than 2 GB.
+	 * 
+	 * The file is not crash-safe: the header is marked open before the rows
+	 * first change, and only marked closed again by
+	 * {@link BinaryWorldFormat#force(OffHeapCellWorld)}.
+	 * 
+	 * @param file
+	 *            Plain checkpoint to map
+	 * @return World mapped to the file
+	 * @throws IOException
+	 *             Occurs when the file cannot be mapped, is not a valid plain
+	 *             checkpoint, or holds an unsupported rule set
+	 */
+	public static OffHeapCellWorld map(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			Header header = new Header();
+			readHeader(channel, header);
+			if ( header.version != FORMAT_VERSION ) {
+				throw new IOException("Only plain checkpoints can be mapped: "
+						+ file);
+			}
+			if ( channel.size() < HEADER_SIZE + rowBytes(header.size) ) {
+				throw new IOException("Invalid checkpoint file: world of size "
+						+ header.size + " does not match the file length.");
+			}
+			RuleSet ruleSet = parseRuleSet(header);
+
+			// the mappings stay valid once the channel is closed
+			OffHeapCellWorld world = new OffHeapCellWorld(header.size,
+					mapSlabs(channel, header.size), file, header.generation,
+					openMarker(channel));
+			world.loadRuleSet(ruleSet.toString());
+
+			if ( world.getPopulationCount() != header.population ) {
+				throw new IOException("Invalid checkpoint file: population "
+						+ world.getPopulationCount()
+						+ " does not match the header's " + header.population
+						+ ".");
+			}
+			return world;
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Create a plain checkpoint holding a blank world, and map it as an
+	 * {@link OffHeapCellWorld}. The file is sparse until cells are written.
+	 * 
+	 * @param file
+	 *            File to create, replaced if it exists
+	 * @param size
+	 *            Size of the world
+	 * @return Blank world mapped to the file
+	 * @throws IOException
+	 *             Occurs when the file cannot be written to
+	 */
+	public static OffHeapCellWorld create(File file, int size)
+			throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			OffHeapCellWorld world = new OffHeapCellWorld(size, mapSlabs(
+					channel, size), file, 0, openMarker(channel));
+			writeHeader(channel, world);
+			return world;
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Check if a world is mapped to a file.
+	 * 
+	 * @param world
+	 *            World to check
+	 * @param file
+	 *            File to check
+	 * @return True if the world's rows are the file's rows
+	 * @throws IOException
+	 *             Occurs when the file's path cannot be resolved
+	 */
+	public static boolean isMappedTo(OffHeapCellWorld world, File file)
+			throws IOException {
+		File mapped = world.getMappedFile();
+		return mapped != null
+				&& mapped.getCanonicalFile().equals(file.getCanonicalFile());
+	}
+
+	/**
+	 * Persist a world mapped to a checkpoint: its rows are forced to disk,
+	 * then the header is updated with its generation, population and rule
+	 * set, which marks the file closed until the rows next change.
+	 * 
+	 * @precondition world is mapped to a file
+	 * 
+	 * @param world
+	 *            World to persist
+	 * @throws IOException
+	 *             Occurs when the file cannot be written to
+	 */
+	public static void force(OffHeapCellWorld world) throws IOException {
+		world.force();
+
+		FileChannel channel = FileChannel.open(world.getMappedFile().toPath(),
+				StandardOpenOption.WRITE);
+		try {
+			writeHeader(channel, world);
+			channel.force(false);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Save the current state of a model as a checkpoint.
+	 * 
+	 * @param file
+	 *            File to save to, replaced if it exists
+	 * @param model
+	 *            Model to save
+	 * @param compress
+	 *            True to write a block-compressed checkpoint, whose blocks are
+	 *            compressed in parallel
+	 * @throws IOException
+	 *             Occurs when the file cannot be written to
+	 */
+	public static void write(File file, GOLModel model, boolean compress)
+			throws IOException {
+		int size = model.getWorldSize();
+		if ( rowBytes(size) > Integer.MAX_VALUE ) {
+			throw new IOException("World too large for a checkpoint: " + size);
+		}
+
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			if ( compress ) {
+				BinaryWorldFormat.writeCompressed(channel, model);
+			} else {
+				MappedByteBuffer buffer = channel.map(
+						FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE
+								+ rowBytes(size));
+				buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+				putHeader(buffer, model, FORMAT_VERSION);
+				packRows(model, rows(buffer));
+				buffer.force();
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Write a block-compressed checkpoint of a model.
+	 * 
+	 * @param channel
+	 *            Channel of the empty file
+	 * @param model
+	 *            Model to save
+	 * @throws IOException
+	 *             Occurs when the file cannot be written to
+	 */
+	private static void writeCompressed(FileChannel channel, GOLModel model)
+			throws IOException {
+		int size = model.getWorldSize();
+		int rowBytes = ((size + 63) >>> 6) * 8;
+		byte[] raw = new byte[(int) rowBytes(size)];
+		packRows(model, ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN)
+				.asLongBuffer());
+
+		int rowsPerBlock = Math.max(1, BLOCK_BYTES / rowBytes);
+		int blockCount = (size - 1) / rowsPerBlock + 1;
+		byte[][] blocks = new byte[blockCount][];
+		BLOCK_POOL.invoke(new DeflateBlocks(raw, rowsPerBlock * rowBytes,
+				blocks, 0, blockCount));
+
+		ByteBuffer head = ByteBuffer.allocate(
+				HEADER_SIZE + 8 + 8 * (blockCount + 1)).order(
+				ByteOrder.LITTLE_ENDIAN);
+		putHeader(head, model, COMPRESSED_VERSION);
+		head.putInt(rowsPerBlock).putInt(blockCount);
+		long offset = head.capacity();
+		for (byte[] block : blocks) {
+			head.putLong(offset);
+			offset += block.length;
+		}
+		head.putLong(offset);
+
+		head.flip();
+		writeFully(channel, head);
+		for (byte[] block : blocks) {
+			writeFully(channel, ByteBuffer.wrap(block));
+		}
+	}
+
+	// #########################################################################
+	// Internal Classes
+	// #########################################################################
+
+	/**
+	 * Fields of the header of a checkpoint.
+	 */
+	private static final class Header {
+		int		version;
+		int		size;
+		int		wordsPerRow;
+		long	generation;
+		long	population;
+		String	ruleSet;
+		/**
+		 * Block layout, only used by block-compressed checkpoints
+		 */
+		int		rowsPerBlock;
+		long[]	blockOffsets;
+	}
+
+	/**
+	 * Task that inflates the blocks [from, to) of a compressed checkpoint,
+	 * splitting down to a single block per task.
+	 */
+	@SuppressWarnings("serial")
+	private static final class InflateBlocks extends RecursiveTask<Boolean> {
+
+		private final ByteBuffer	buffer;
+		private final Header		header;
+		private final byte[]		raw;
+		private final int			from, to;
+
+		/**
+		 * Creates a task for blocks [from, to).
+		 * 
+		 * @param buffer
+		 *            Mapping of the file
+		 * @param header
+		 *            Header of the checkpoint
+		 * @param raw
+		 *            Destination of the plain rows of the whole world
+		 * @param from
+		 *            First block to inflate
+		 * @param to
+		 *            Block after the last block to inflate
+		 */
+		InflateBlocks(ByteBuffer buffer, Header header, byte[] raw, int from,
+				int to) {
+			this.buffer = buffer;
+			this.header = header;
+			this.raw = raw;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * @return True if every block inflated to exactly its rows
+		 */
+		@Override
+		protected Boolean compute() {
+			if ( to - from == 1 ) {
+				return inflateBlock(buffer, header, from, raw, from
+						* header.rowsPerBlock * header.wordsPerRow * 8);
+			}
+
+			int mid = (from + to) >>> 1;
+			InflateBlocks upper = new InflateBlocks(buffer, header, raw, mid,
+					to);
+			upper.fork();
+			boolean lower = new InflateBlocks(buffer, header, raw, from, mid)
+					.compute();
+			return upper.join() && lower;
+		}
+	}
+
+	/**
+	 * Task that deflates the blocks [from, to) of a world's plain rows,
+	 * splitting down to a single block per task.
+	 */
+	@SuppressWarnings("serial")
+	private static final class DeflateBlocks extends RecursiveTask<Void> {
+
+		private final byte[]	raw;
+		private final int		blockBytes;
+		private final byte[][]	blocks;
+		private final int		from, to;
+
+		/**
+		 * Creates a task for blocks [from, to).
+		 * 
+		 * @param raw
+		 *            Plain rows of the whole world
+		 * @param blockBytes
+		 *            Length of a full block's rows in bytes
+		 * @param blocks
+		 *            Destination of the compressed blocks
+		 * @param from
+		 *            First block to deflate
+		 * @param to
+		 *            Block after the last block to deflate
+		 */
+		DeflateBlocks(byte[] raw, int blockBytes, byte[][] blocks, int from,
+				int to) {
+			this.raw = raw;
+			this.blockBytes = blockBytes;
+			this.blocks = blocks;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Void compute() {
+			if ( to - from == 1 ) {
+				int offset = from * blockBytes;
+				blocks[from] = deflateBlock(raw, offset,
+						Math.min(blockBytes, raw.length - offset));
+				return null;
+			}
+
+			int mid = (from + to) >>> 1;
+			invokeAll(new DeflateBlocks(raw, blockBytes, blocks, from, mid),
+					new DeflateBlocks(raw, blockBytes, blocks, mid, to));
+			return null;
+		}
+	}
+
+}
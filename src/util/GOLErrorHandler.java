@@ -27,5 +27,13 @@ public final class GOLErrorHandler {
 	 * Error value to return when a thread is unexpectedly interrupted.
 	 */
 	public static final int	THREAD_INTERRUPT_ERROR	= 4;
+	/**
+	 * Error value to return when invalid command line arguments are given.
+	 */
+	public static final int	ARGUMENT_ERROR			= 5;
+	/**
+	 * Error value to return when specified file cannot be written.
+	 */
+	public static final int	FILE_WRITE_ERROR		= 6;
 
 }
@@ -3,13 +3,17 @@ package util;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.InputStream;
+import java.util.Locale;
 
 import creation.CellWorld;
+import creation.GOLModel;
+import creation.OffHeapCellWorld;
+import creation.PackedWorld;
 
 
 
@@ -20,8 +24,12 @@ import creation.CellWorld;
  * 
  * 
  * ------------------------- File Format Specification: ------------------------
- * Files are stored in .txt format. Below is how the contents of files should be 
- * laid out:
+ * Files are stored in .txt format, or in the run-length encoded format used by
+ * most Life software(see {@link RLEFormat}) when saved with an .rle extension,
+ * or as binary checkpoints(see {@link BinaryWorldFormat}) when saved with a
+ * .gol extension(block-compressed with a .golz extension).
+ * The format of a file being read is detected from its contents. Below is how
+ * the contents of .txt files should be laid out:
  * 
  * Note: Let the world size be the integer N.
  * 
@@ -47,6 +55,11 @@ import creation.CellWorld;
 // @formatter:on
 public final class GOLFileHandler {
 
+	/**
+	 * Number of characters looked at when detecting the format of a file
+	 */
+	private static final int	DETECT_LIMIT	= 4096;
+
 	/**
 	 * Parse a given file with the game-of-life file format specification and
 	 * return a 2D integer array representation of the world configuration file.
@@ -58,50 +71,113 @@ public final class GOLFileHandler {
 	 *             Occurs when an unexpected format is given
 	 */
 	public static int[][] parseWorldFile(File fileTarget) throws IOException {
-		BufferedReader in = null;
-		try {
-			in = new BufferedReader(new FileReader(fileTarget));
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-			System.err.printf("\nError: Could not find file: %s", fileTarget);
+		return GOLFileHandler.readWorldFile(fileTarget).getWorld();
+	}
+
+	/**
+	 * Parse a given file in any supported format. Checkpoints are detected by
+	 * their magic number, and text formats by the first character of the file
+	 * that is not whitespace.
+	 * 
+	 * @param fileTarget
+	 *            World configuration file to parse
+	 * @return Parsed world configuration, along with the rule set given by the
+	 *         file(if any)
+	 * @throws IOException
+	 *             Occurs when an unexpected format is given
+	 */
+	public static WorldFile readWorldFile(File fileTarget) throws IOException {
+		if ( BinaryWorldFormat.isBinary(fileTarget) ) {
+			return BinaryWorldFormat.read(fileTarget);
 		}
 
-		int worldSize = 0;
+		if ( GOLFileHandler.isRLEFile(fileTarget) ) {
+			BufferedReader in = new BufferedReader(new FileReader(fileTarget));
+			try {
+				return RLEFormat.read(in);
+			} finally {
+				in.close();
+			}
+		}
+		return new WorldFile(TextWorldFormat.read(fileTarget), null, 0);
+	}
+
+	/**
+	 * Check if a file starts like an RLE file, judging by the first character
+	 * of the file that is not whitespace.
+	 * 
+	 * @param fileTarget
+	 *            File to check
+	 * @return True if the file is an RLE file
+	 * @throws IOException
+	 *             Occurs when the file cannot be read
+	 */
+	private static boolean isRLEFile(File fileTarget) throws IOException {
+		InputStream in = new FileInputStream(fileTarget);
 		try {
-			worldSize = Integer.parseInt(in.readLine());
-		} catch (NumberFormatException e) {
-			e.printStackTrace();
-			System.err
-					.printf("\nError: Could not read input file. Make sure that "
-							+ "the first line of the file is the size of your world's grid.");
+			int c = in.read();
+			for (int i = 1; i < DETECT_LIMIT && c != -1
+					&& Character.isWhitespace(c); i++) {
+				c = in.read();
+			}
+			return RLEFormat.isRLE(c);
+		} finally {
 			in.close();
 		}
+	}
 
-		int[][] customWorld = new int[worldSize][worldSize];
-
-		// Read in file and create the world according to the file format
-		// specification
-		String currLine = null;
-		int y = 0;
-		while ((currLine = in.readLine()) != null) {
-			Scanner sc = new Scanner(currLine);
-
-			for (int x = 0; x < worldSize; x++) {
-				customWorld[y][x] = sc.nextInt();
+	/**
+	 * Load a given file in any supported format into a model, along with the
+	 * rule set given by the file(if any). Files of every format loaded into a
+	 * {@link PackedWorld}(i.e. {@link CellWorld}) are decoded straight into
+	 * the world's bit-packed buffers. Checkpoints also restore the generation,
+	 * whatever the model.
+	 * 
+	 * @param fileTarget
+	 *            World configuration file to load
+	 * @param model
+	 *            Model to load into
+	 * @throws IOException
+	 *             Occurs when an unexpected format is given
+	 * @throws IllegalArgumentException
+	 *             Occurs when the model does not support the file's rule set
+	 */
+	public static void loadWorldFile(File fileTarget, GOLModel model)
+			throws IOException {
+		if ( model instanceof PackedWorld ) {
+			if ( BinaryWorldFormat.isBinary(fileTarget) ) {
+				BinaryWorldFormat.load(fileTarget, (PackedWorld) model);
+				return;
+			} else if ( GOLFileHandler.isRLEFile(fileTarget) ) {
+				BufferedReader in = new BufferedReader(new FileReader(
+						fileTarget));
+				try {
+					RLEFormat.load(in, (PackedWorld) model);
+				} finally {
+					in.close();
+				}
+				return;
+			} else {
+				TextWorldFormat.load(fileTarget, (PackedWorld) model);
+				return;
 			}
-
-			sc.close();
-			y++;
 		}
 
-		in.close();
-
-		return customWorld;
+		WorldFile file = GOLFileHandler.readWorldFile(fileTarget);
+		model.loadWorld(file.getWorld(), file.getGeneration());
+		if ( file.getRuleSet() != null ) {
+			model.loadRuleSet(file.getRuleSet());
+		}
 	}
 
 	/**
 	 * Write the given world model to file and save it at the given location
-	 * using the file format specification.
+	 * using the file format specification. Files with an .rle extension are
+	 * written in the RLE format, files with a .gol extension as binary
+	 * checkpoints(see {@link BinaryWorldFormat}), and files with a .golz
+	 * extension as block-compressed checkpoints, along with the model's rule
+	 * set. An {@link OffHeapCellWorld} saved to the checkpoint it is mapped
+	 * from is persisted in place, by forcing the mapping to disk.
 	 * 
 	 * @param fileTarget
 	 *            File location to save to
@@ -110,17 +186,33 @@ public final class GOLFileHandler {
 	 * @throws IOException
 	 *             Occurs when the file cannot be written to
 	 */
-	public static void saveWorldFile(File fileTarget, CellWorld world)
+	public static void saveWorldFile(File fileTarget, GOLModel world)
 			throws IOException {
 
-		BufferedWriter out = new BufferedWriter(new FileWriter(
-				GOLFileHandler.formatFileName(fileTarget)));
+		if ( world instanceof OffHeapCellWorld
+				&& BinaryWorldFormat.isMappedTo((OffHeapCellWorld) world,
+						fileTarget) ) {
+			BinaryWorldFormat.force((OffHeapCellWorld) world);
+			return;
+		}
 
-		int size = world.getWorldSize();
-		out.write(size + "\n");
-		out.write(world.toString());
+		if ( GOLFileHandler.isCheckpointFileName(fileTarget) ) {
+			BinaryWorldFormat.write(fileTarget, world,
+					GOLFileHandler.isCompressedFileName(fileTarget));
+			return;
+		}
 
-		out.close();
+		if ( GOLFileHandler.isRLEFileName(fileTarget) ) {
+			BufferedWriter out = new BufferedWriter(new FileWriter(fileTarget));
+			try {
+				RLEFormat.write(out, world);
+			} finally {
+				out.close();
+			}
+			return;
+		}
+
+		TextWorldFormat.write(GOLFileHandler.formatFileName(fileTarget), world);
 	}
 
 	/**
@@ -132,7 +224,106 @@ public final class GOLFileHandler {
 	 * @return Formatted file
 	 */
 	public static File formatFileName(File file) {
-		return file.toString().contains(".txt") ? file
-				: new File(file + ".txt");
+		return file.toString().contains(".txt")
+				|| GOLFileHandler.isRLEFileName(file)
+				|| GOLFileHandler.isCheckpointFileName(file) ? file : new File(
+				file + ".txt");
+	}
+
+	/**
+	 * Check if a file is named as an RLE file.
+	 * 
+	 * @param file
+	 *            File to check
+	 * @return True if the file's name ends with .rle (in any case)
+	 */
+	public static boolean isRLEFileName(File file) {
+		return file.getName().toLowerCase(Locale.ROOT).endsWith(".rle");
+	}
+
+	/**
+	 * Check if a file is named as a binary checkpoint.
+	 * 
+	 * @param file
+	 *            File to check
+	 * @return True if the file's name ends with .gol or .golz (in any case)
+	 */
+	public static boolean isCheckpointFileName(File file) {
+		String name = file.getName().toLowerCase(Locale.ROOT);
+		return name.endsWith(".gol") || name.endsWith(".golz");
+	}
+
+	/**
+	 * Check if a file is named as a block-compressed checkpoint.
+	 * 
+	 * @param file
+	 *            File to check
+	 * @return True if the file's name ends with .golz (in any case)
+	 */
+	public static boolean isCompressedFileName(File file) {
+		return file.getName().toLowerCase(Locale.ROOT).endsWith(".golz");
+	}
+
+	// #########################################################################
+	// Internal Classes
+	// #########################################################################
+
+	/**
+	 * World configuration read from a file, along with the rule set given by
+	 * the file.
+	 */
+	public static final class WorldFile {
+
+		/**
+		 * 2D array representation of the world configuration
+		 */
+		private final int[][]	world;
+		/**
+		 * Rule set given by the file, or null
+		 */
+		private final String	ruleSet;
+		/**
+		 * Generation of the world configuration, zero unless it was read
+		 * from a checkpoint
+		 */
+		private final long		generation;
+
+		/**
+		 * Creates a world configuration read from a file.
+		 * 
+		 * @param world
+		 *            2D array representation of the world configuration
+		 * @param ruleSet
+		 *            Rule set given by the file, or null
+		 * @param generation
+		 *            Generation of the world configuration
+		 */
+		WorldFile(int[][] world, String ruleSet, long generation) {
+			this.world = world;
+			this.ruleSet = ruleSet;
+			this.generation = generation;
+		}
+
+		/**
+		 * @return 2D array representation of the world configuration
+		 */
+		public int[][] getWorld() {
+			return world;
+		}
+
+		/**
+		 * @return Rule set given by the file, or null if it gave none
+		 */
+		public String getRuleSet() {
+			return ruleSet;
+		}
+
+		/**
+		 * @return Generation of the world configuration, zero unless it was
+		 *         read from a checkpoint
+		 */
+		public long getGeneration() {
+			return generation;
+		}
 	}
 }
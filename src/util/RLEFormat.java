@@ -0,0 +1,476 @@
+package util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.LongBuffer;
+
+import creation.CellWorld;
+import creation.GOLModel;
+import creation.PackedWorld;
+
+
+
+// @formatter:off
+/**
+ * Reader and writer of the run-length encoded (RLE) world format used by most
+ * Life software. Both work as streams: the reader decodes one character at a
+ * time, and the writer emits one run at a time, so neither needs the whole
+ * file in memory. Runs are decoded straight into bit-packed rows, a whole
+ * word of cells at a time, so a pattern takes a bit per cell while it is
+ * read.
+ * 
+ * 
+ * -------------------------- File Format Specification: -----------------------
+ * Lines starting with '#' are comments, and may only appear before the header.
+ * 
+ * Header line: x = W, y = H[, rule = B3/S23]
+ * 
+ * All following lines: runs of cells, each an optional count followed by a
+ * tag: 'b' for dead cells, 'o' for alive cells, '$' for the end of a row, or
+ * '!' for the end of the pattern. Cells missing at the end of a row are dead.
+ * Whitespace between runs is ignored, and lines are at most 70 characters.
+ * 
+ * Worlds are square, so a W x H pattern is read into a world of size
+ * max(W, H).
+ * 
+ * 
+ * ---- Example File Representation (a glider): ----
+ * #N Glider
+ * x = 3, y = 3, rule = B3/S23
+ * bob$2bo$3o!
+ * 
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+// @formatter:on
+public final class RLEFormat {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Longest line written
+	 */
+	private static final int	MAX_LINE_LENGTH	= 70;
+
+	/**
+	 * Source of the pattern being read
+	 */
+	private final Reader		in;
+	/**
+	 * Character read ahead of the current position, or -2 if none
+	 */
+	private int					peeked;
+	/**
+	 * Position of the last character read, for error messages
+	 */
+	private int					line, column;
+
+	/**
+	 * Size and bit-packed rows of the pattern read, laid out as described by
+	 * {@link PackedWorld}
+	 */
+	private int					size;
+	private int					wordsPerRow;
+	private long[]				rows;
+	/**
+	 * Rule set given by the header, or null
+	 */
+	private String				ruleSet;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates a reader of a pattern.
+	 * 
+	 * @param in
+	 *            Source of the pattern, positioned at its start
+	 */
+	private RLEFormat(Reader in) {
+		this.in = in;
+		this.peeked = -2;
+		this.line = 1;
+		this.column = 0;
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Read the next character.
+	 * 
+	 * @return Next character, or -1 at the end of the file
+	 * @throws IOException
+	 *             Occurs when the file cannot be read
+	 */
+	private int read() throws IOException {
+		int c = peeked != -2 ? peeked : in.read();
+		peeked = -2;
+
+		if ( c == '\n' ) {
+			line++;
+			column = 0;
+		} else {
+			column++;
+		}
+		return c;
+	}
+
+	/**
+	 * Get the next character without consuming it.
+	 * 
+	 * @return Next character, or -1 at the end of the file
+	 * @throws IOException
+	 *             Occurs when the file cannot be read
+	 */
+	private int peek() throws IOException {
+		if ( peeked == -2 ) {
+			peeked = in.read();
+		}
+		return peeked;
+	}
+
+	/**
+	 * Create the exception thrown for a malformed file.
+	 * 
+	 * @param message
+	 *            Description of the problem
+	 * @return Exception describing the problem at the current position
+	 */
+	private IOException error(String message) {
+		return new IOException(String.format(
+				"Invalid RLE file at line %d, column %d: %s", line, column,
+				message));
+	}
+
+	/**
+	 * Read the rest of the current line.
+	 * 
+	 * @return Line without its line terminator
+	 * @throws IOException
+	 *             Occurs when the file cannot be read
+	 */
+	private String readLine() throws IOException {
+		StringBuilder text = new StringBuilder();
+		int c;
+		while ((c = this.peek()) != -1 && c != '\n') {
+			this.read();
+			if ( c != '\r' ) {
+				text.append((char) c);
+			}
+		}
+		this.read();
+		return text.toString();
+	}
+
+	/**
+	 * Read the header, skipping any comments before it.
+	 * 
+	 * @return Width, height, and rule set(or null) of the pattern
+	 * @throws IOException
+	 *             Occurs when the header is missing or malformed
+	 */
+	private String[] readHeader() throws IOException {
+		String header;
+		do {
+			if ( this.peek() == -1 ) {
+				throw this.error("missing header line");
+			}
+			header = this.readLine().trim();
+		} while (header.isEmpty() || header.charAt(0) == '#');
+
+		String[] fields = new String[3];
+		for (String field : header.split(",")) {
+			int equals = field.indexOf('=');
+			if ( equals < 0 ) {
+				throw this.error("expected 'name = value' in header: " + field);
+			}
+
+			String name = field.substring(0, equals).trim();
+			String value = field.substring(equals + 1).trim();
+			if ( name.equals("x") ) {
+				fields[0] = value;
+			} else if ( name.equals("y") ) {
+				fields[1] = value;
+			} else if ( name.equals("rule") ) {
+				fields[2] = value;
+			}
+		}
+
+		if ( fields[0] == null || fields[1] == null ) {
+			throw this.error("header must give both x and y");
+		}
+		return fields;
+	}
+
+	/**
+	 * Parse a dimension from the header.
+	 * 
+	 * @param value
+	 *            Value from the header
+	 * @return Dimension
+	 * @throws IOException
+	 *             Occurs when the value is not a non-negative integer
+	 */
+	private int parseDimension(String value) throws IOException {
+		try {
+			int dimension = Integer.parseInt(value);
+			if ( dimension >= 0 ) {
+				return dimension;
+			}
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+		throw this.error("invalid pattern dimension: " + value);
+	}
+
+	/**
+	 * Set a run of cells of a row alive, a word at a time.
+	 * 
+	 * @precondition the run lies within the row
+	 * 
+	 * @param x
+	 *            Row of the run
+	 * @param y
+	 *            Column of the first cell of the run
+	 * @param count
+	 *            Length of the run
+	 */
+	private void setRun(int x, int y, int count) {
+		int base = x * wordsPerRow;
+		int end = y + count;
+		while (y < end) {
+			int bit = y & 63;
+			int n = Math.min(64 - bit, end - y);
+			long mask = n == 64 ? -1L : ((1L << n) - 1) << bit;
+			rows[base + (y >>> 6)] |= mask;
+			y += n;
+		}
+	}
+
+	/**
+	 * Decode the runs of the pattern into the bit-packed rows.
+	 * 
+	 * @param width
+	 *            Width of the pattern
+	 * @param height
+	 *            Height of the pattern
+	 * @throws IOException
+	 *             Occurs when the runs are malformed or outside of the pattern
+	 */
+	private void readRuns(int width, int height) throws IOException {
+		int x = 0, y = 0;
+		while (true) {
+			int c = this.read();
+			if ( c == -1 || c == '!' ) {
+				return;
+			}
+			if ( Character.isWhitespace(c) ) {
+				continue;
+			}
+
+			int count = 1;
+			if ( c >= '0' && c <= '9' ) {
+				long run = c - '0';
+				while ((c = this.read()) >= '0' && c <= '9') {
+					run = run * 10 + (c - '0');
+					if ( run > Integer.MAX_VALUE ) {
+						throw this.error("run count too large");
+					}
+				}
+				count = (int) run;
+			}
+
+			// positions past the pattern are capped, so they cannot overflow
+			if ( c == '$' ) {
+				x = (int) Math.min((long) x + count, Integer.MAX_VALUE);
+				y = 0;
+			} else if ( c == 'b' || c == '.' ) {
+				y = (int) Math.min((long) y + count, Integer.MAX_VALUE);
+			} else if ( c == 'o' || (c >= 'A' && c <= 'Z') ) {
+				// multi-state patterns use capitals, any of which is alive
+				if ( x >= height || count > width - y ) {
+					throw this.error("alive cells outside of the " + width
+							+ " x " + height + " pattern");
+				}
+				this.setRun(x, y, count);
+				y += count;
+			} else {
+				throw this.error(c == -1 ? "unexpected end of file"
+						: "unexpected '" + (char) c + "'");
+			}
+		}
+	}
+
+	/**
+	 * Read a whole pattern into bit-packed rows.
+	 * 
+	 * @param in
+	 *            Source of the pattern, positioned at its start
+	 * @return Reader holding the size, rows and rule set of the pattern
+	 * @throws IOException
+	 *             Occurs when the file cannot be read, is malformed, or is too
+	 *             large to pack into a single array
+	 */
+	private static RLEFormat parse(Reader in) throws IOException {
+		RLEFormat reader = new RLEFormat(in);
+
+		String[] header = reader.readHeader();
+		int width = reader.parseDimension(header[0]);
+		int height = reader.parseDimension(header[1]);
+
+		reader.size = Math.max(1, Math.max(width, height));
+		reader.wordsPerRow = (reader.size + 63) >>> 6;
+		long words = (long) reader.size * reader.wordsPerRow;
+		if ( words > Integer.MAX_VALUE - 8 ) {
+			throw reader.error("pattern too large: " + width + " x " + height);
+		}
+
+		reader.rows = new long[(int) words];
+		reader.ruleSet = header[2];
+		reader.readRuns(width, height);
+		return reader;
+	}
+
+	/**
+	 * Write a run of cells, wrapping lines as needed.
+	 * 
+	 * @param out
+	 *            Destination of the run
+	 * @param count
+	 *            Length of the run
+	 * @param tag
+	 *            Tag of the run
+	 * @param lineLength
+	 *            Length of the current line
+	 * @return Length of the current line after the run
+	 * @throws IOException
+	 *             Occurs when the run cannot be written
+	 */
+	private static int writeRun(Writer out, int count, char tag,
+			int lineLength) throws IOException {
+		String run = count == 1 ? String.valueOf(tag) : count + "" + tag;
+		if ( lineLength + run.length() > MAX_LINE_LENGTH ) {
+			out.write('\n');
+			lineLength = 0;
+		}
+		out.write(run);
+		return lineLength + run.length();
+	}
+
+	// #########################################################################
+	// Format Methods
+	// #########################################################################
+
+	/**
+	 * Check if a file starts like an RLE file (with a comment or a header)
+	 * rather than like a .txt world file (with a number).
+	 * 
+	 * @param firstChar
+	 *            First character of the file that is not whitespace
+	 * @return True if the file is an RLE file
+	 */
+	public static boolean isRLE(int firstChar) {
+		return firstChar == '#' || firstChar == 'x' || firstChar == 'X';
+	}
+
+	/**
+	 * Load a pattern into a {@link PackedWorld}, along with the pattern's rule
+	 * set(if any). The runs are decoded into bit-packed rows, which are
+	 * copied straight into the world's buffers.
+	 * 
+	 * @param in
+	 *            Source of the pattern, positioned at its start
+	 * @param model
+	 *            World to load into
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is malformed
+	 * @throws IllegalArgumentException
+	 *             Occurs when the model does not support the pattern's rule
+	 *             set, after the cells were loaded
+	 */
+	public static void load(Reader in, PackedWorld model) throws IOException {
+		RLEFormat reader = parse(in);
+		model.loadPackedWorld(reader.size, LongBuffer.wrap(reader.rows), 0);
+		if ( reader.ruleSet != null ) {
+			model.loadRuleSet(reader.ruleSet);
+		}
+	}
+
+	/**
+	 * Read a pattern as a 2D array, for models other than a
+	 * {@link PackedWorld}.
+	 * 
+	 * @param in
+	 *            Source of the pattern, positioned at its start
+	 * @return World holding the pattern, and the pattern's rule set(or null)
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is malformed
+	 */
+	public static GOLFileHandler.WorldFile read(Reader in) throws IOException {
+		RLEFormat reader = parse(in);
+		int size = reader.size;
+
+		int[][] world = new int[size][size];
+		for (int x = 0; x < size; x++) {
+			int base = x * reader.wordsPerRow;
+			for (int y = 0; y < size; y++) {
+				world[x][y] = (int) (reader.rows[base + (y >>> 6)] >>> y) & 1;
+			}
+		}
+
+		return new GOLFileHandler.WorldFile(world, reader.ruleSet, 0);
+	}
+
+	/**
+	 * Write the world of a model as a pattern.
+	 * 
+	 * @param out
+	 *            Destination of the pattern
+	 * @param model
+	 *            Model to write
+	 * @throws IOException
+	 *             Occurs when the pattern cannot be written
+	 */
+	public static void write(Writer out, GOLModel model) throws IOException {
+		int size = model.getWorldSize();
+		out.write("x = " + size + ", y = " + size + ", rule = "
+				+ model.getRuleSet() + "\n");
+
+		int lineLength = 0;
+		// rows ended but not yet written, so that empty rows collapse
+		int pendingRows = 0;
+		for (int x = 0; x < size; x++) {
+			int y = 0;
+			while (y < size) {
+				int state = model.getCellState(x, y);
+				int end = y + 1;
+				while (end < size && model.getCellState(x, end) == state) {
+					end++;
+				}
+
+				// trailing dead cells of a row are implied
+				if ( state == CellWorld.ALIVE || end < size ) {
+					if ( pendingRows > 0 ) {
+						lineLength = writeRun(out, pendingRows, '$', lineLength);
+						pendingRows = 0;
+					}
+					lineLength = writeRun(out, end - y,
+							state == CellWorld.ALIVE ? 'o' : 'b', lineLength);
+				}
+				y = end;
+			}
+			pendingRows++;
+		}
+
+		writeRun(out, 1, '!', lineLength);
+		out.write('\n');
+	}
+
+}
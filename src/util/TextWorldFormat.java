@@ -0,0 +1,375 @@
+package util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import creation.GOLModel;
+import creation.PackedWorld;
+
+
+
+/**
+ * Reader and writer of the .txt world format described by
+ * {@link GOLFileHandler}. Both work on raw bytes through a reused buffer: the
+ * reader decodes each '0' or '1' straight into bit-packed rows, and the writer
+ * encodes each cell straight into bytes, so neither allocates anything per
+ * cell.
+ * 
+ * Rows must be on lines of their own, and cells must be separated by spaces or
+ * tabs. Blank lines are ignored.
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+public final class TextWorldFormat {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Size of the buffer that files are read into and written from
+	 */
+	private static final int	BUFFER_SIZE	= 1 << 16;
+
+	/**
+	 * Source of the world being read
+	 */
+	private final FileChannel	channel;
+	/**
+	 * Bytes read ahead from the channel
+	 */
+	private final ByteBuffer	buffer;
+	/**
+	 * Position of the last byte read, for error messages
+	 */
+	private int					line, column;
+	/**
+	 * True if the last byte read was a line break
+	 */
+	private boolean				lineEnded;
+
+	/**
+	 * Size and bit-packed rows of the world read
+	 */
+	private int					size;
+	private long[]				rows;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Creates a reader of a world.
+	 * 
+	 * @param channel
+	 *            Source of the world, positioned at its start
+	 */
+	private TextWorldFormat(FileChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		this.buffer.flip();
+		this.line = 1;
+		this.column = 0;
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Read the next byte.
+	 * 
+	 * @return Next byte, or -1 at the end of the file
+	 * @throws IOException
+	 *             Occurs when the file cannot be read
+	 */
+	private int read() throws IOException {
+		if ( !buffer.hasRemaining() ) {
+			buffer.clear();
+			int n;
+			do {
+				n = channel.read(buffer);
+			} while (n == 0);
+			buffer.flip();
+			if ( n < 0 ) {
+				return -1;
+			}
+		}
+
+		// a line break belongs to the line it ends
+		if ( lineEnded ) {
+			line++;
+			column = 0;
+		}
+
+		int b = buffer.get() & 0xFF;
+		column++;
+		lineEnded = b == '\n';
+		return b;
+	}
+
+	/**
+	 * Create the exception thrown for a malformed file.
+	 * 
+	 * @param message
+	 *            Description of the problem
+	 * @return Exception describing the problem at the current position
+	 */
+	private IOException error(String message) {
+		return new IOException(String.format(
+				"Invalid world file at line %d, column %d: %s", line, column,
+				message));
+	}
+
+	/**
+	 * Check if a byte separates cells within a row.
+	 * 
+	 * @param b
+	 *            Byte to check
+	 * @return True for spaces, tabs and carriage returns
+	 */
+	private static boolean isSpace(int b) {
+		return b == ' ' || b == '\t' || b == '\r';
+	}
+
+	/**
+	 * Read the first line of the file, which holds the world size.
+	 * 
+	 * @return World size
+	 * @throws IOException
+	 *             Occurs when the first line is not a valid world size
+	 */
+	private int readSize() throws IOException {
+		int b;
+		do {
+			b = this.read();
+		} while (isSpace(b) || b == '\n');
+
+		if ( b < '0' || b > '9' ) {
+			throw this.error("expected the size of the world on the first line");
+		}
+
+		long size = 0;
+		while (b >= '0' && b <= '9') {
+			size = size * 10 + (b - '0');
+			if ( size > Integer.MAX_VALUE ) {
+				throw this.error("world size too large");
+			}
+			b = this.read();
+		}
+
+		while (isSpace(b)) {
+			b = this.read();
+		}
+		if ( b != '\n' && b != -1 ) {
+			throw this.error("expected only the size of the world on the first "
+					+ "line");
+		}
+
+		int wordsPerRow = (int) ((size + 63) >>> 6);
+		if ( size == 0 || size * wordsPerRow > Integer.MAX_VALUE ) {
+			throw this.error("invalid world size: " + size);
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Decode the rows of the world into bit-packed rows.
+	 * 
+	 * @param size
+	 *            World size
+	 * @return Rows of the world, the cell at (x, y) is bit (y % 64) of
+	 *         rows[x * wordsPerRow + y / 64]
+	 * @throws IOException
+	 *             Occurs when the rows are malformed
+	 */
+	private long[] readRows(int size) throws IOException {
+		int wordsPerRow = (size + 63) >>> 6;
+		long[] rows = new long[size * wordsPerRow];
+
+		int x = 0, y = 0;
+		boolean afterCell = false;
+		while (true) {
+			int b = this.read();
+
+			if ( b == '0' || b == '1' ) {
+				if ( afterCell ) {
+					throw this.error("expected a space between cells");
+				} else if ( x == size ) {
+					throw this.error("expected " + size + " rows");
+				} else if ( y == size ) {
+					throw this.error("expected " + size + " cells in row "
+							+ (x + 1));
+				}
+
+				if ( b == '1' ) {
+					rows[x * wordsPerRow + (y >>> 6)] |= 1L << y;
+				}
+				y++;
+				afterCell = true;
+			} else if ( isSpace(b) ) {
+				afterCell = false;
+			} else if ( b == '\n' || b == -1 ) {
+				// blank lines are skipped, any other line ends a row
+				if ( y > 0 ) {
+					if ( y < size ) {
+						throw this.error("expected " + size + " cells in row "
+								+ (x + 1) + ", found " + y);
+					}
+					x++;
+					y = 0;
+				}
+				afterCell = false;
+
+				if ( b == -1 ) {
+					if ( x < size ) {
+						throw this.error("expected " + size + " rows, found "
+								+ x);
+					}
+					return rows;
+				}
+			} else {
+				throw this.error("expected a cell state of 0 or 1, found '"
+						+ (char) b + "'");
+			}
+		}
+	}
+
+	/**
+	 * Write the start of a buffer's backing array to a channel.
+	 * 
+	 * @param channel
+	 *            Channel to write to
+	 * @param buffer
+	 *            Buffer wrapping the bytes to write
+	 * @param length
+	 *            Number of bytes to write
+	 * @throws IOException
+	 *             Occurs when the channel cannot be written to
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer,
+			int length) throws IOException {
+		buffer.clear();
+		buffer.limit(length);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	// #########################################################################
+	// Format Methods
+	// #########################################################################
+
+	/**
+	 * Read a world as bit-packed rows.
+	 * 
+	 * @param file
+	 *            World file to read
+	 * @return Reader holding the world's size and rows
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is malformed
+	 */
+	private static TextWorldFormat parse(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ);
+		try {
+			TextWorldFormat reader = new TextWorldFormat(channel);
+			reader.size = reader.readSize();
+			reader.rows = reader.readRows(reader.size);
+			return reader;
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Load a world into a {@link PackedWorld}. The cells are decoded into
+	 * bit-packed rows, which are copied straight into the world's buffers.
+	 * 
+	 * @param file
+	 *            World file to load
+	 * @param model
+	 *            World to load into
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is malformed
+	 */
+	public static void load(File file, PackedWorld model) throws IOException {
+		TextWorldFormat reader = parse(file);
+		model.loadPackedWorld(reader.size, LongBuffer.wrap(reader.rows), 0);
+	}
+
+	/**
+	 * Read a world as a 2D array, for models other than a {@link PackedWorld}.
+	 * 
+	 * @param file
+	 *            World file to read
+	 * @return 2D array representation of the world
+	 * @throws IOException
+	 *             Occurs when the file cannot be read or is malformed
+	 */
+	public static int[][] read(File file) throws IOException {
+		TextWorldFormat reader = parse(file);
+		int size = reader.size;
+		int wordsPerRow = (size + 63) >>> 6;
+
+		int[][] world = new int[size][size];
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				world[x][y] = (int) (reader.rows[x * wordsPerRow + (y >>> 6)] >>> y) & 1;
+			}
+		}
+		return world;
+	}
+
+	/**
+	 * Write a world. Each row is encoded straight into a reused byte buffer
+	 * that is flushed to the file whenever it fills up, so memory use does not
+	 * depend on the world size.
+	 * 
+	 * @param file
+	 *            File to save to, replaced if it exists
+	 * @param world
+	 *            World Model to save
+	 * @throws IOException
+	 *             Occurs when the file cannot be written to
+	 */
+	public static void write(File file, GOLModel world) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			byte[] bytes = new byte[BUFFER_SIZE];
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+			int size = world.getWorldSize();
+			byte[] header = (size + "\n").getBytes(StandardCharsets.US_ASCII);
+			System.arraycopy(header, 0, bytes, 0, header.length);
+			int length = header.length;
+
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					if ( length > bytes.length - 2 ) {
+						flush(channel, buffer, length);
+						length = 0;
+					}
+
+					// each cell is its digit followed by a space or the end
+					// of the row
+					bytes[length++] = (byte) ('0' + world.getCellState(x, y));
+					bytes[length++] = (byte) (y == size - 1 ? '\n' : ' ');
+				}
+			}
+
+			flush(channel, buffer, length);
+		} finally {
+			channel.close();
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+package creation;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import creation.CellWorld.TickMode;
+import creation.CellWorld.Topology;
+
+// @formatter:off
+/**
+ * Check that the steady-state tick of {@link CellWorld} allocates nothing, in
+ * every tick mode and topology and with parallel ticks, and that neither does
+ * the tick of {@link OffHeapCellWorld}. Each world is warmed up until the JIT
+ * has compiled the tick, then the bytes allocated by the current thread, and
+ * by the fork/join workers of parallel ticks, are measured over a run of
+ * ticks with com.sun.management.ThreadMXBean.
+ * 
+ * 
+ * ---------------------------------- Run: -------------------------------------
+ * javac -d out src/creation/*.java src/util/*.java test/creation/*.java
+ * java -cp out creation.TickAllocationTest
+ * 
+ * Exits with status 1 if any tick allocated, or if the JVM cannot count the
+ * bytes allocated by a thread.
+ * 
+ * 
+ * @author Cameron Rader (github: Mr-Sniffles)
+ * 
+ */
+// @formatter:on
+public final class TickAllocationTest {
+
+	// #########################################################################
+	// Global Variables/Constants
+	// #########################################################################
+
+	/**
+	 * Size of the worlds ticked
+	 */
+	private static final int	SIZE			= 512;
+	/**
+	 * Ticks run before measuring, enough for the tick to be compiled
+	 */
+	private static final int	WARMUP_TICKS	= 2000;
+	/**
+	 * Ticks measured
+	 */
+	private static final int	MEASURED_TICKS	= 200;
+	/**
+	 * Threads used by parallel ticks
+	 */
+	private static final int	THREADS			= 4;
+
+	// #########################################################################
+	// Constructors
+	// #########################################################################
+
+	/**
+	 * Test class, not instantiated.
+	 */
+	private TickAllocationTest() {
+	}
+
+	// #########################################################################
+	// Helper Methods
+	// #########################################################################
+
+	/**
+	 * Get the allocation counter of the JVM.
+	 * 
+	 * @return Thread allocation counter, or null if it is not supported
+	 */
+	private static com.sun.management.ThreadMXBean allocationBean() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		if ( bean instanceof com.sun.management.ThreadMXBean ) {
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if ( sunBean.isThreadAllocatedMemorySupported() ) {
+				sunBean.setThreadAllocatedMemoryEnabled(true);
+				return sunBean;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Fill a world with a random soup, dense enough to keep changing for the
+	 * whole test.
+	 * 
+	 * @param model
+	 *            World to fill
+	 * @param seed
+	 *            Seed of the soup
+	 */
+	private static void fillSoup(GOLModel model, long seed) {
+		Random random = new Random(seed);
+		int[][] world = new int[SIZE][SIZE];
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				world[x][y] = random.nextInt(3) == 0 ? CellWorld.ALIVE
+						: CellWorld.DEAD;
+			}
+		}
+		model.loadWorld(world);
+	}
+
+	/**
+	 * Get the ids of every live fork/join worker thread.
+	 * 
+	 * @return Thread ids of the workers
+	 */
+	private static List<Long> workerIds() {
+		List<Long> ids = new ArrayList<Long>();
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if ( thread instanceof ForkJoinWorkerThread ) {
+				ids.add(thread.getId());
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Sum the bytes allocated by a set of threads.
+	 * 
+	 * @param bean
+	 *            Thread allocation counter
+	 * @param ids
+	 *            Thread ids to count
+	 * @return Bytes allocated by the threads since they started
+	 */
+	private static long allocatedBytes(com.sun.management.ThreadMXBean bean,
+			List<Long> ids) {
+		long bytes = 0;
+		for (long id : ids) {
+			bytes += Math.max(0, bean.getThreadAllocatedBytes(id));
+		}
+		return bytes;
+	}
+
+	/**
+	 * Measure the bytes allocated per tick of a warmed up world, by the
+	 * current thread and by any fork/join workers.
+	 * 
+	 * @param bean
+	 *            Thread allocation counter
+	 * @param model
+	 *            World to tick
+	 * @return Bytes allocated over the measured ticks
+	 */
+	private static long allocatedBytes(com.sun.management.ThreadMXBean bean,
+			GOLModel model) {
+		for (int i = 0; i < WARMUP_TICKS; i++) {
+			model.tick();
+		}
+
+		// counting other threads allocates, so it brackets the current
+		// thread's own count
+		List<Long> workers = workerIds();
+		long workersBefore = allocatedBytes(bean, workers);
+
+		long thread = Thread.currentThread().getId();
+		long before = bean.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < MEASURED_TICKS; i++) {
+			model.tick();
+		}
+		long bytes = bean.getThreadAllocatedBytes(thread) - before;
+
+		return bytes + allocatedBytes(bean, workers) - workersBefore;
+	}
+
+	/**
+	 * Report the allocations of a world's ticks.
+	 * 
+	 * @param name
+	 *            Description of the world
+	 * @param bytes
+	 *            Bytes allocated over the measured ticks
+	 * @return True if nothing was allocated
+	 */
+	private static boolean report(String name, long bytes) {
+		System.out.println((bytes == 0 ? "PASS " : "FAIL ") + name + ": "
+				+ bytes + " bytes over " + MEASURED_TICKS + " ticks");
+		return bytes == 0;
+	}
+
+	public static void main(String[] args) {
+		com.sun.management.ThreadMXBean bean = allocationBean();
+		if ( bean == null ) {
+			System.err.println("Error: This JVM cannot count the bytes "
+					+ "allocated by a thread.");
+			System.exit(1);
+		}
+
+		boolean passed = true;
+		for (TickMode mode : TickMode.values()) {
+			for (Topology topology : Topology.values()) {
+				CellWorld world = new CellWorld(SIZE);
+				fillSoup(world, 1);
+				world.setTickMode(mode);
+				world.setTopology(topology);
+				passed &= report("CellWorld " + mode + " " + topology,
+						allocatedBytes(bean, world));
+			}
+		}
+
+		for (Topology topology : Topology.values()) {
+			CellWorld world = new CellWorld(SIZE);
+			fillSoup(world, 4);
+			world.setTopology(topology);
+			world.setParallelism(THREADS);
+			passed &= report("CellWorld parallel " + topology,
+					allocatedBytes(bean, world));
+			world.setParallelism(1);
+		}
+
+		CellWorld cycling = new CellWorld(SIZE);
+		fillSoup(cycling, 2);
+		cycling.setCycleDetection(64);
+		passed &= report("CellWorld with cycle detection",
+				allocatedBytes(bean, cycling));
+
+		for (Topology topology : Topology.values()) {
+			OffHeapCellWorld world = new OffHeapCellWorld(SIZE);
+			fillSoup(world, 3);
+			world.setTopology(topology);
+			passed &= report("OffHeapCellWorld " + topology,
+					allocatedBytes(bean, world));
+		}
+
+		System.exit(passed ? 0 : 1);
+	}
+
+}